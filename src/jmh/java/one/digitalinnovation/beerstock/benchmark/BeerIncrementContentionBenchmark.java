@@ -0,0 +1,97 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class BeerIncrementContentionBenchmark {
+
+    @Param({"1", "16"})
+    private int hotSkus;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private BeerRepository beerRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<BeerDTO> beers;
+    private final AtomicLong acknowledgedIncrements = new AtomicLong();
+
+    @Setup
+    public void setUp() throws BeerAlreadyRegisteredException {
+        context = BenchmarkContext.start();
+        beerService = context.getBean(BeerService.class);
+        beerRepository = context.getBean(BeerRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        beers = BenchmarkContext.seed(beerService, hotSkus, Integer.MAX_VALUE / 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        long storedQuantity = beerRepository.findAll().stream().mapToLong(Beer::getQuantity).sum();
+        System.out.printf("%nacknowledged increments: %d, stored quantity: %d, lost updates: %d%n",
+                acknowledgedIncrements.get(), storedQuantity, acknowledgedIncrements.get() - storedQuantity);
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDTO conditionalUpdate() throws BeerNotFoundException, BeerStockExceededException {
+        BeerDTO incrementedBeer = beerService.increment(hotBeerId(), 1);
+        acknowledgedIncrements.incrementAndGet();
+        return incrementedBeer;
+    }
+
+    @Benchmark
+    public Beer readModifyWrite() {
+        Long id = hotBeerId();
+        try {
+            Beer incrementedBeer = transactionTemplate.execute(status -> {
+                Beer beer = beerRepository.findById(id).orElseThrow(IllegalStateException::new);
+                if (beer.getQuantity() + 1 > beer.getMax()) {
+                    throw new IllegalStateException();
+                }
+                beer.setQuantity(beer.getQuantity() + 1);
+                return beerRepository.save(beer);
+            });
+            acknowledgedIncrements.incrementAndGet();
+            return incrementedBeer;
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    private Long hotBeerId() {
+        return beers.get(ThreadLocalRandom.current().nextInt(beers.size())).getId();
+    }
+}
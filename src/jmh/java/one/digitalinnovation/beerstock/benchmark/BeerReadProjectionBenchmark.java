@@ -0,0 +1,89 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class BeerReadProjectionBenchmark {
+
+    @Param({"1000", "10000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BeerRepository beerRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private List<BeerDTO> beers;
+
+    @Setup
+    public void setUp() throws BeerAlreadyRegisteredException {
+        context = BenchmarkContext.start("--beerstock.cache.maximum-size=0");
+        beerRepository = context.getBean(BeerRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        beers = BenchmarkContext.seed(context.getBean(BeerService.class), catalogSize, Integer.MAX_VALUE / 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDTO findByNameEntity() {
+        String name = randomBeer().getName();
+        return readOnlyTransaction.execute(status -> beerMapper.toDTO(beerRepository.findByName(name).orElseThrow()));
+    }
+
+    @Benchmark
+    public BeerDTO findByNameProjection() {
+        return beerRepository.findDTOByName(randomBeer().getName()).orElseThrow();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<BeerDTO> listAllEntity() {
+        return readOnlyTransaction.execute(status -> beerRepository.findAll()
+                .stream()
+                .map(beerMapper::toDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<BeerDTO> listAllProjection() {
+        return beerRepository.findAllDTOs();
+    }
+
+    private BeerDTO randomBeer() {
+        return beers.get(ThreadLocalRandom.current().nextInt(beers.size()));
+    }
+}
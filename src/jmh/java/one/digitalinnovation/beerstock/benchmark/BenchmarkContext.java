@@ -0,0 +1,62 @@
+package one.digitalinnovation.beerstock.benchmark;
+
+import one.digitalinnovation.beerstock.BeerstockApplication;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+final class BenchmarkContext {
+
+    private static final int SEED_BATCH_SIZE = 10000;
+    private static final BeerType[] BEER_TYPES = BeerType.values();
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        String[] defaults = {
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+        };
+        String[] args = Stream.concat(Arrays.stream(defaults), Arrays.stream(properties)).toArray(String[]::new);
+        return SpringApplication.run(BeerstockApplication.class, args);
+    }
+
+    static List<BeerDTO> seed(BeerService beerService, int catalogSize, int max) throws BeerAlreadyRegisteredException {
+        List<BeerDTO> savedBeers = new ArrayList<>(catalogSize);
+        for (int from = 0; from < catalogSize; from += SEED_BATCH_SIZE) {
+            savedBeers.addAll(beerService.createBeers(beers(from, Math.min(SEED_BATCH_SIZE, catalogSize - from), max)));
+        }
+        return savedBeers;
+    }
+
+    static List<BeerDTO> beers(int from, int count, int max) {
+        return IntStream.range(from, from + count)
+                .mapToObj(i -> beer(i, max))
+                .collect(Collectors.toList());
+    }
+
+    static BeerDTO beer(int i, int max) {
+        return BeerDTO.builder()
+                .id((long) i + 1)
+                .name("beer-" + i)
+                .brand("brand-" + (i % 100))
+                .max(max)
+                .quantity(0)
+                .type(BEER_TYPES[i % BEER_TYPES.length])
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package one.digitalinnovation.beerstock.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Component
+public class BeerCache {
+
+    private static final String CACHE_NAME = "beers";
+    private static final int INVALIDATION_STRIPES = 256;
+
+    private final Cache<String, BeerDTO> beersByName;
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+    private final boolean fillFromReads;
+
+    @Autowired
+    public BeerCache(MeterRegistry meterRegistry,
+                     @Value("${beerstock.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${beerstock.cache.expire-after-write:60s}") Duration expireAfterWrite,
+                     @Value("${beerstock.datasource.replica.enabled:false}") boolean replicaEnabled) {
+        // A lagging replica can return a row older than the last eviction, which the stamp cannot detect
+        this.fillFromReads = !replicaEnabled;
+        this.beersByName = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, beersByName, CACHE_NAME);
+    }
+
+    public Optional<BeerDTO> get(String name) {
+        return Optional.ofNullable(beersByName.getIfPresent(name));
+    }
+
+    /**
+     * Taken before reading a beer from the database, and handed back to {@link #fill} with the row read.
+     */
+    public long stamp(String name) {
+        return invalidations.get(stripe(name));
+    }
+
+    /**
+     * Caches a beer read from the database, unless its name was evicted after {@code stamp} was taken:
+     * the row may then predate the write that evicted it, and caching it would serve that old row until it expires.
+     * Reads only fill the cache when they are served by the primary.
+     */
+    public void fill(BeerDTO beerDTO, long stamp) {
+        if (!fillFromReads) {
+            return;
+        }
+        int stripe = stripe(beerDTO.getName());
+        beersByName.asMap().compute(beerDTO.getName(),
+                (name, cachedBeerDTO) -> cachedBeerDTO != null || invalidations.get(stripe) != stamp ? cachedBeerDTO : beerDTO);
+    }
+
+    /**
+     * Writers evict instead of caching their own snapshot, since concurrent writers finish in any order.
+     * Inside a transaction the name is evicted again once it completes, so the old row read by someone else
+     * before the commit is not cached either.
+     */
+    public void evict(String name) {
+        invalidate(name);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(name);
+                }
+            });
+        }
+    }
+
+    private void invalidate(String name) {
+        invalidations.incrementAndGet(stripe(name));
+        beersByName.invalidate(name);
+    }
+
+    private static int stripe(String name) {
+        return (name.hashCode() & Integer.MAX_VALUE) % INVALIDATION_STRIPES;
+    }
+}
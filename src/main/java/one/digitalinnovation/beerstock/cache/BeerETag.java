@@ -0,0 +1,52 @@
+package one.digitalinnovation.beerstock.cache;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ETags hashed from the beers a response actually returns. Reads may be served by a lagging replica or
+ * overlaid with in-memory stock, so only the returned data tells whether a client's copy is still current.
+ */
+public final class BeerETag {
+
+    private BeerETag() {
+    }
+
+    public static String of(BeerDTO beerDTO) {
+        return of(Collections.singletonList(beerDTO));
+    }
+
+    public static String of(List<BeerDTO> beerDTOs) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (BeerDTO beerDTO : beerDTOs) {
+            update(digest, beerDTO.getId());
+            update(digest, beerDTO.getName());
+            update(digest, beerDTO.getBrand());
+            update(digest, beerDTO.getMax());
+            update(digest, beerDTO.getQuantity());
+            update(digest, beerDTO.getType());
+        }
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"";
+    }
+
+    // Each field is length-prefixed so that adjacent values cannot run into each other
+    private static void update(MessageDigest digest, Object value) {
+        byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+}
@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstock.cache;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+@Component
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerNameFilterLoader {
+
+    private final BeerRepository beerRepository;
+    private final BeerNameFilter beerNameFilter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        try (Stream<String> names = beerRepository.streamAllNames()) {
+            names.forEach(beerNameFilter::add);
+        }
+        beerNameFilter.markReady();
+    }
+}
@@ -0,0 +1,48 @@
+package one.digitalinnovation.beerstock.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.beerstock.datasource.ReadWriteRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public ReadWriteRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+                                                 Environment environment,
+                                                 MeterRegistry meterRegistry,
+                                                 @Value("${beerstock.datasource.replica.enabled:false}") boolean replicaEnabled,
+                                                 @Value("${beerstock.datasource.replica.url:}") String replicaUrl,
+                                                 @Value("${beerstock.datasource.replica.username:}") String replicaUsername,
+                                                 @Value("${beerstock.datasource.replica.password:}") String replicaPassword) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (!replicaEnabled) {
+            return new ReadWriteRoutingDataSource(primary, primary);
+        }
+
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        binder.bind("beerstock.datasource.replica.hikari", Bindable.ofInstance(replica));
+        return new ReadWriteRoutingDataSource(primary, replica);
+    }
+}
@@ -0,0 +1,17 @@
+package one.digitalinnovation.beerstock.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.beerstock.metrics.BeerMetrics;
+import one.digitalinnovation.beerstock.metrics.TimedMappingJackson2HttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper, BeerMetrics beerMetrics) {
+        return new TimedMappingJackson2HttpMessageConverter(objectMapper, beerMetrics);
+    }
+}
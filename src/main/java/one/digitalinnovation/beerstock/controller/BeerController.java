@@ -1,14 +1,43 @@
 package one.digitalinnovation.beerstock.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.cache.BeerETag;
+import one.digitalinnovation.beerstock.dto.BeerBatchDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerImportReportDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupResultDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.BeerSearchDTO;
+import one.digitalinnovation.beerstock.dto.BeerSearchResultDTO;
+import one.digitalinnovation.beerstock.dto.BeerTypeSummaryDTO;
 import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.dto.ReservationRequestDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.enums.ExportFormat;
+import one.digitalinnovation.beerstock.event.StockEventBroadcaster;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.exception.InvalidImportHeaderException;
+import one.digitalinnovation.beerstock.exception.InvalidSearchCursorException;
+import one.digitalinnovation.beerstock.exception.ReservationNotFoundException;
+import one.digitalinnovation.beerstock.ratelimit.AdmissionCost;
+import one.digitalinnovation.beerstock.service.BeerExportService;
+import one.digitalinnovation.beerstock.service.BeerImportService;
 import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.summary.StockSummary;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -16,10 +45,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
 import java.util.List;
 
 @RestController
@@ -28,6 +65,11 @@ import java.util.List;
 public class BeerController implements BeerControllerDocs {
 
     private final BeerService beerService;
+    private final BeerImportService beerImportService;
+    private final BeerExportService beerExportService;
+    private final ObjectMapper objectMapper;
+    private final StockEventBroadcaster stockEventBroadcaster;
+    private final StockSummary stockSummary;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -35,14 +77,95 @@ public class BeerController implements BeerControllerDocs {
         return beerService.createBeer(beerDTO);
     }
 
+    @PostMapping("/batch")
+    @AdmissionCost(10)
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<BeerDTO> createBeers(@RequestBody @Valid BeerBatchDTO beerBatchDTO) throws BeerAlreadyRegisteredException {
+        return beerService.createBeers(beerBatchDTO.getBeers());
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @AdmissionCost(50)
+    public BeerImportReportDTO importBeers(InputStream inputStream) throws IOException, InvalidImportHeaderException {
+        return beerImportService.importCsv(inputStream);
+    }
+
     @GetMapping("/{name}")
-    public BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException {
-        return beerService.findByName(name);
+    public BeerDTO findByName(@PathVariable String name, WebRequest webRequest) throws BeerNotFoundException {
+        BeerDTO beerDTO = beerService.findByName(name);
+        return webRequest.checkNotModified(BeerETag.of(beerDTO)) ? null : beerDTO;
+    }
+
+    @PostMapping("/lookup")
+    @AdmissionCost(5)
+    public BeerLookupResultDTO lookup(@RequestBody @Valid BeerLookupDTO beerLookupDTO) {
+        return beerService.lookup(
+                beerLookupDTO.getNames() == null ? Collections.emptyList() : beerLookupDTO.getNames(),
+                beerLookupDTO.getIds() == null ? Collections.emptyList() : beerLookupDTO.getIds());
     }
 
     @GetMapping
-    public List<BeerDTO> listBeers() {
-        return beerService.listAll();
+    @AdmissionCost(20)
+    public List<BeerDTO> listBeers(WebRequest webRequest) {
+        List<BeerDTO> beerDTOs = beerService.listAll();
+        return webRequest.checkNotModified(BeerETag.of(beerDTOs)) ? null : beerDTOs;
+    }
+
+    @GetMapping(params = "size")
+    @AdmissionCost(5)
+    public BeerPageDTO listBeersPage(@RequestParam(required = false) Long after, @RequestParam int size, WebRequest webRequest) {
+        BeerPageDTO beerPageDTO = beerService.listPage(after, size);
+        return webRequest.checkNotModified(BeerETag.of(beerPageDTO.getBeers())) ? null : beerPageDTO;
+    }
+
+    @GetMapping("/search")
+    @AdmissionCost(5)
+    public BeerSearchResultDTO searchBeers(@Valid BeerSearchDTO beerSearchDTO) throws InvalidSearchCursorException {
+        return beerService.search(beerSearchDTO);
+    }
+
+    @GetMapping("/summary")
+    public List<BeerTypeSummaryDTO> summarizeByType() {
+        return stockSummary.summarize();
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @AdmissionCost(20)
+    public StreamingResponseBody streamBeers() {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                beerService.streamAll(beerDTO -> {
+                    try {
+                        generator.writeObject(beerDTO);
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    @GetMapping("/export")
+    @AdmissionCost(50)
+    public ResponseEntity<StreamingResponseBody> exportBeers(@RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                             @RequestParam(defaultValue = "false") boolean gzip) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(format.getMediaType()));
+        headers.setContentDisposition(ContentDisposition.builder("attachment")
+                .filename("beers." + format.getExtension())
+                .build());
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return new ResponseEntity<>(outputStream -> beerExportService.export(format, gzip, outputStream), headers, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStockEvents() {
+        return stockEventBroadcaster.subscribe();
     }
 
     @DeleteMapping("/{id}")
@@ -55,4 +178,31 @@ public class BeerController implements BeerControllerDocs {
     public BeerDTO increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockExceededException {
         return beerService.increment(id, quantityDTO.getQuantity());
     }
+
+    @PatchMapping("/{id}/decrement")
+    public BeerDTO decrement(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockInsufficientException {
+        return beerService.decrement(id, quantityDTO.getQuantity());
+    }
+
+    @PostMapping("/{id}/reservations")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ReservationDTO reserve(@PathVariable Long id, @RequestBody @Valid ReservationRequestDTO reservationRequestDTO) throws BeerNotFoundException, BeerStockInsufficientException {
+        return beerService.reserve(id, reservationRequestDTO.getQuantity(), reservationRequestDTO.getTtlSeconds());
+    }
+
+    @PostMapping("/reservations/{reservationId}/commit")
+    public ReservationDTO commitReservation(@PathVariable String reservationId) throws ReservationNotFoundException {
+        return beerService.commitReservation(reservationId);
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void releaseReservation(@PathVariable String reservationId) throws ReservationNotFoundException {
+        beerService.releaseReservation(reservationId);
+    }
+
+    @PatchMapping("/increment")
+    public List<StockAdjustmentResultDTO> incrementAll(@RequestBody @Valid StockAdjustmentBatchDTO stockAdjustmentBatchDTO) {
+        return beerService.incrementAll(stockAdjustmentBatchDTO.getAdjustments());
+    }
 }
@@ -4,15 +4,39 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import one.digitalinnovation.beerstock.dto.BeerBatchDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerImportReportDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupResultDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.BeerSearchDTO;
+import one.digitalinnovation.beerstock.dto.BeerSearchResultDTO;
+import one.digitalinnovation.beerstock.dto.BeerTypeSummaryDTO;
 import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.dto.ReservationRequestDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
+import one.digitalinnovation.beerstock.enums.ExportFormat;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.exception.InvalidImportHeaderException;
+import one.digitalinnovation.beerstock.exception.InvalidSearchCursorException;
+import one.digitalinnovation.beerstock.exception.ReservationNotFoundException;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @Api("Manages beer stock")
@@ -21,22 +45,84 @@ public interface BeerControllerDocs {
     @ApiOperation(value = "Beer creation operation")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Success beer creation"),
-            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value.")
+            @ApiResponse(code = 400, message = "Missing required fields, wrong field range value or a reserved name.")
     })
     BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException;
 
-    @ApiOperation(value = "Returns beer found by a given name")
+    @ApiOperation(value = "Bulk beer creation operation, inserted in JDBC batches")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Success beers creation"),
+            @ApiResponse(code = 400, message = "Missing required fields, wrong field range value, a reserved name or beer already registered.")
+    })
+    List<BeerDTO> createBeers(BeerBatchDTO beerBatchDTO) throws BeerAlreadyRegisteredException;
+
+    @ApiOperation(value = "Creates or updates beers from a CSV body, upserted in batched transactions")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Import report with the row and reason of each rejected row"),
+            @ApiResponse(code = 400, message = "CSV header is missing a required column.")
+    })
+    BeerImportReportDTO importBeers(InputStream inputStream) throws IOException, InvalidImportHeaderException;
+
+    @ApiOperation(value = "Returns beer found by a given name",
+            notes = "The names stream, search, summary, export and events are taken by other endpoints and cannot be registered.")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Success beer found in the system"),
+            @ApiResponse(code = 304, message = "Beer unchanged since the ETag given in If-None-Match."),
             @ApiResponse(code = 404, message = "Beer with given name not found.")
     })
-    BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException;
+    BeerDTO findByName(@PathVariable String name, WebRequest webRequest) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Returns the beers matching many names or ids at once, resolved with chunked IN queries")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Beers found and the names and ids that matched no beer"),
+            @ApiResponse(code = 400, message = "More than 1000 names or ids, or a blank name.")
+    })
+    BeerLookupResultDTO lookup(BeerLookupDTO beerLookupDTO);
 
     @ApiOperation(value = "Returns a list of all beers registered in the system")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "List of all beers registered in the system"),
+            @ApiResponse(code = 304, message = "Catalog unchanged since the ETag given in If-None-Match.")
+    })
+    List<BeerDTO> listBeers(WebRequest webRequest);
+
+    @ApiOperation(value = "Returns a page of beers ordered by id, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of beers and the cursor of the next page, null on the last page"),
+            @ApiResponse(code = 304, message = "Page unchanged since the ETag given in If-None-Match.")
+    })
+    BeerPageDTO listBeersPage(@RequestParam Long after, @RequestParam int size, WebRequest webRequest);
+
+    @ApiOperation(value = "Searches beers by brand, type, quantity range and fill ratio, sorted and paged by an opaque keyset cursor")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Page of matching beers and the cursor of the next page, null on the last page"),
+            @ApiResponse(code = 400, message = "Invalid filter value or a cursor issued for a different sort.")
+    })
+    BeerSearchResultDTO searchBeers(BeerSearchDTO beerSearchDTO) throws InvalidSearchCursorException;
+
+    @ApiOperation(value = "Returns the number of beers, total quantity, total capacity and fill ratio of each beer type")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stock summary of every beer type"),
+    })
+    List<BeerTypeSummaryDTO> summarizeByType();
+
+    @ApiOperation(value = "Streams all beers registered in the system as a JSON array, row by row")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "JSON array of all beers registered in the system"),
+    })
+    StreamingResponseBody streamBeers();
+
+    @ApiOperation(value = "Exports the whole inventory as CSV or NDJSON, streamed from a JDBC cursor and optionally gzipped")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Inventory snapshot, one beer per line"),
+    })
+    ResponseEntity<StreamingResponseBody> exportBeers(@RequestParam ExportFormat format, @RequestParam boolean gzip);
+
+    @ApiOperation(value = "Server-Sent Events feed of committed stock changes; a 'lag' event reports events dropped for a slow subscriber")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stream of stock change events"),
     })
-    List<BeerDTO> listBeers();
+    SseEmitter streamStockEvents();
 
     @ApiOperation(value = "Delete a beer found by a given valid Id")
     @ApiResponses(value = {
@@ -44,4 +130,41 @@ public interface BeerControllerDocs {
             @ApiResponse(code = 404, message = "Beer with given id not found.")
     })
     void deleteById(@PathVariable Long id) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Decrements the stock of a beer, never below zero")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Beer with the decremented stock"),
+            @ApiResponse(code = 400, message = "Not enough stock or wrong field range value."),
+            @ApiResponse(code = 404, message = "Beer with given id not found.")
+    })
+    BeerDTO decrement(@PathVariable Long id, QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockInsufficientException;
+
+    @ApiOperation(value = "Holds units of a beer until the reservation is committed, released or expires")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "Reservation created; the units are taken from the stock until it expires"),
+            @ApiResponse(code = 400, message = "Not enough stock or wrong field range value."),
+            @ApiResponse(code = 404, message = "Beer with given id not found.")
+    })
+    ReservationDTO reserve(@PathVariable Long id, ReservationRequestDTO reservationRequestDTO) throws BeerNotFoundException, BeerStockInsufficientException;
+
+    @ApiOperation(value = "Commits a reservation, keeping its units out of the stock")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Committed reservation"),
+            @ApiResponse(code = 404, message = "Reservation not found or already expired.")
+    })
+    ReservationDTO commitReservation(@PathVariable String reservationId) throws ReservationNotFoundException;
+
+    @ApiOperation(value = "Releases a reservation, returning its units to the stock")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Reservation released"),
+            @ApiResponse(code = 404, message = "Reservation not found or already expired.")
+    })
+    void releaseReservation(@PathVariable String reservationId) throws ReservationNotFoundException;
+
+    @ApiOperation(value = "Increments the stock of many beers in a single batched transaction")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Result of each stock adjustment, in request order"),
+            @ApiResponse(code = 400, message = "Missing required fields or wrong field range value.")
+    })
+    List<StockAdjustmentResultDTO> incrementAll(StockAdjustmentBatchDTO stockAdjustmentBatchDTO);
 }
@@ -0,0 +1,10 @@
+package one.digitalinnovation.beerstock.csv;
+
+import java.io.IOException;
+
+public class CsvFormatException extends IOException {
+
+    public CsvFormatException(String message) {
+        super(message);
+    }
+}
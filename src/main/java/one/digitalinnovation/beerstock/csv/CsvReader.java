@@ -0,0 +1,125 @@
+package one.digitalinnovation.beerstock.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvReader implements Closeable {
+
+    private static final int BYTE_ORDER_MARK = '\uFEFF';
+    private static final int MAX_FIELD_LENGTH = 10000;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long recordNumber;
+    private boolean started;
+    private boolean fieldTooLong;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        boolean any = false;
+        int c;
+        while ((c = read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    append(field, c);
+                }
+            } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(wasQuoted ? field.toString() : field.toString().trim());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                if (fields.isEmpty() && field.length() == 0 && !wasQuoted) {
+                    any = false;
+                    continue;
+                }
+                break;
+            } else {
+                append(field, c);
+            }
+        }
+        if (!any) {
+            return null;
+        }
+        // The whole record has been consumed, so the caller can report it and go on with the next one
+        recordNumber++;
+        if (quoted) {
+            throw new CsvFormatException(String.format("Unterminated quoted field in record %s", recordNumber));
+        }
+        if (fieldTooLong) {
+            fieldTooLong = false;
+            throw new CsvFormatException(String.format("Field longer than %s characters in record %s", MAX_FIELD_LENGTH, recordNumber));
+        }
+        fields.add(wasQuoted ? field.toString() : field.toString().trim());
+        return fields;
+    }
+
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void append(StringBuilder field, int c) {
+        if (field.length() == MAX_FIELD_LENGTH) {
+            fieldTooLong = true;
+            return;
+        }
+        field.append((char) c);
+    }
+
+    private int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        return fill() ? buffer[position] : -1;
+    }
+
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit > 0 && !started) {
+            started = true;
+            if (buffer[0] == BYTE_ORDER_MARK) {
+                position = 1;
+                return fill();
+            }
+        }
+        return limit > 0;
+    }
+}
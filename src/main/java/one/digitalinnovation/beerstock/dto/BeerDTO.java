@@ -10,6 +10,7 @@ import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
 @Data
@@ -20,8 +21,11 @@ public class BeerDTO {
 
     private Long id;
 
+    // GET /api/v1/beers/{name} cannot reach a beer named after one of the controller's literal subpaths
     @NotNull
     @Size(min = 1, max = 200)
+    @Pattern(regexp = "(?s)(?!(?:stream|search|summary|export|events)\\z).*",
+            message = "must not be one of the reserved names stream, search, summary, export or events")
     private String name;
 
     @NotNull
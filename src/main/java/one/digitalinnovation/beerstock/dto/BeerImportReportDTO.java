@@ -0,0 +1,27 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerImportReportDTO {
+
+    private long rows;
+
+    private long created;
+
+    private long updated;
+
+    private long failed;
+
+    private List<BeerImportErrorDTO> errors;
+
+    private boolean errorsTruncated;
+}
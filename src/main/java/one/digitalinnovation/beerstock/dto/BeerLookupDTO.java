@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerLookupDTO {
+
+    @Size(max = 1000)
+    private List<@NotNull @Size(min = 1, max = 200) String> names;
+
+    @Size(max = 1000)
+    private List<@NotNull Long> ids;
+}
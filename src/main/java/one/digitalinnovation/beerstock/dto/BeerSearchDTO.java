@@ -0,0 +1,52 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.enums.BeerSortField;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.springframework.data.domain.Sort;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Size;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerSearchDTO {
+
+    @Size(min = 1, max = 200)
+    private String brand;
+
+    private BeerType type;
+
+    @Min(0)
+    private Integer minQuantity;
+
+    @Min(0)
+    private Integer maxQuantity;
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private Double minFillRatio;
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private Double maxFillRatio;
+
+    private BeerSortField sort;
+
+    private Sort.Direction direction;
+
+    @Min(1)
+    @Max(1000)
+    private Integer size;
+
+    @Size(max = 1000)
+    private String cursor;
+}
@@ -0,0 +1,32 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.enums.BeerType;
+
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerTypeSummaryDTO {
+
+    @Enumerated(EnumType.STRING)
+    private BeerType type;
+
+    private Long beers;
+
+    private Long quantity;
+
+    private Long capacity;
+
+    private Double fillRatio;
+
+    public BeerTypeSummaryDTO(BeerType type, Long beers, Long quantity, Long capacity) {
+        this(type, beers, quantity, capacity, capacity == 0 ? 0.0 : (double) quantity / capacity);
+    }
+}
@@ -0,0 +1,24 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.enums.StockEventType;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockEventDTO {
+
+    private Long sequence;
+
+    private StockEventType eventType;
+
+    private Long id;
+
+    private Integer quantity;
+
+    private Integer max;
+}
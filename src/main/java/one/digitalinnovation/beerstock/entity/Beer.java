@@ -12,18 +12,33 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 
 @Data
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = Beer.UNIQUE_NAME_CONSTRAINT, columnNames = "name"),
+        indexes = {
+                @Index(name = "idx_beer_brand_type_quantity", columnList = "brand, type, quantity, id"),
+                @Index(name = "idx_beer_type_quantity", columnList = "type, quantity, id"),
+                @Index(name = "idx_beer_quantity", columnList = "quantity, id"),
+                @Index(name = "idx_beer_max", columnList = "max, id")
+        })
 @NoArgsConstructor
 @AllArgsConstructor
 public class Beer {
 
+    public static final String UNIQUE_NAME_CONSTRAINT = "uk_beer_name";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beer_sequence")
+    @SequenceGenerator(name = "beer_sequence", sequenceName = "beer_sequence", allocationSize = 100)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String name;
 
     @Column(nullable = false)
@@ -39,5 +54,8 @@ public class Beer {
     @Column(nullable = false)
     private BeerType type;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
 
 }
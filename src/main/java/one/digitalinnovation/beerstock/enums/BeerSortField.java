@@ -0,0 +1,18 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum BeerSortField {
+
+    ID("Id", "id"),
+    NAME("Name", "name"),
+    BRAND("Brand", "brand"),
+    QUANTITY("Quantity", "quantity"),
+    MAX("Max", "max");
+
+    private final String description;
+    private final String property;
+}
@@ -0,0 +1,16 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+
+    CSV("CSV", "text/csv", "csv"),
+    NDJSON("Newline delimited JSON", "application/x-ndjson", "ndjson");
+
+    private final String description;
+    private final String mediaType;
+    private final String extension;
+}
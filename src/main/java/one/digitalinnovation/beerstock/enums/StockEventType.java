@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockEventType {
+
+    CREATED("Created"),
+    UPDATED("Updated"),
+    DELETED("Deleted");
+
+    private final String description;
+}
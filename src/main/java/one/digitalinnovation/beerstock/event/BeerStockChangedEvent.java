@@ -0,0 +1,65 @@
+package one.digitalinnovation.beerstock.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.enums.StockEventType;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class BeerStockChangedEvent {
+
+    private StockEventType eventType;
+
+    private Long id;
+
+    private String name;
+
+    private BeerType type;
+
+    private int delta;
+
+    private int quantity;
+
+    private int max;
+
+    private BeerType previousType;
+
+    private int previousMax;
+
+    public static BeerStockChangedEvent created(BeerDTO beerDTO) {
+        return of(StockEventType.CREATED, beerDTO, beerDTO.getQuantity());
+    }
+
+    public static BeerStockChangedEvent updated(BeerDTO beerDTO, int delta) {
+        return of(StockEventType.UPDATED, beerDTO, delta);
+    }
+
+    public static BeerStockChangedEvent updated(BeerDTO previousBeerDTO, BeerDTO beerDTO) {
+        BeerStockChangedEvent event = of(StockEventType.UPDATED, beerDTO, beerDTO.getQuantity() - previousBeerDTO.getQuantity());
+        event.setPreviousType(previousBeerDTO.getType());
+        event.setPreviousMax(previousBeerDTO.getMax());
+        return event;
+    }
+
+    public static BeerStockChangedEvent deleted(BeerDTO beerDTO) {
+        return of(StockEventType.DELETED, beerDTO, -beerDTO.getQuantity());
+    }
+
+    private static BeerStockChangedEvent of(StockEventType eventType, BeerDTO beerDTO, int delta) {
+        return BeerStockChangedEvent.builder()
+                .eventType(eventType)
+                .id(beerDTO.getId())
+                .name(beerDTO.getName())
+                .type(beerDTO.getType())
+                .delta(delta)
+                .quantity(beerDTO.getQuantity())
+                .max(beerDTO.getMax())
+                .previousType(beerDTO.getType())
+                .previousMax(beerDTO.getMax())
+                .build();
+    }
+}
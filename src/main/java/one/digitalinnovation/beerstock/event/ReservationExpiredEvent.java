@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+
+@Data
+@AllArgsConstructor
+public class ReservationExpiredEvent {
+
+    private ReservationDTO reservation;
+}
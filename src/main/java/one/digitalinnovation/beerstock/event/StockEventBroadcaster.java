@@ -0,0 +1,158 @@
+package one.digitalinnovation.beerstock.event;
+
+import one.digitalinnovation.beerstock.dto.StockEventDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class StockEventBroadcaster {
+
+    private static final String STOCK_EVENT = "stock";
+    private static final String LAG_EVENT = "lag";
+
+    private final Executor drainExecutor;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Drains run on their own fixed pool, so subscribers blocked on slow connections cannot starve the shared task
+     * executor. A subscriber has at most one drain scheduled at a time, which bounds the pool's queue by the number
+     * of subscribers.
+     */
+    @Autowired
+    public StockEventBroadcaster(@Value("${beerstock.events.drain-threads:4}") int drainThreads,
+                                 @Value("${beerstock.events.buffer-size:256}") int bufferSize,
+                                 @Value("${beerstock.events.timeout:30m}") Duration timeout) {
+        this(drainExecutor(drainThreads), bufferSize, timeout);
+    }
+
+    public StockEventBroadcaster(Executor drainExecutor, int bufferSize, Duration timeout) {
+        this.drainExecutor = drainExecutor;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public SseEmitter subscribe() {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(BeerStockChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        StockEventDTO stockEventDTO = StockEventDTO.builder()
+                .sequence(sequence.incrementAndGet())
+                .eventType(event.getEventType())
+                .id(event.getId())
+                .quantity(event.getQuantity())
+                .max(event.getMax())
+                .build();
+        subscribers.forEach(subscriber -> subscriber.offer(stockEventDTO));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (drainExecutor instanceof ExecutorService) {
+            ((ExecutorService) drainExecutor).shutdownNow();
+        }
+    }
+
+    private static ExecutorService drainExecutor(int drainThreads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, drainThreads), runnable -> {
+            Thread thread = new Thread(runnable, "stock-event-drain-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<StockEventDTO> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(StockEventDTO stockEventDTO) {
+            while (!buffer.offer(stockEventDTO)) {
+                if (buffer.poll() != null) {
+                    dropped.incrementAndGet();
+                }
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    drainExecutor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    long lost = dropped.getAndSet(0);
+                    if (lost > 0) {
+                        emitter.send(SseEmitter.event().name(LAG_EVENT).data(lost));
+                    }
+                    StockEventDTO stockEventDTO = buffer.poll();
+                    if (stockEventDTO == null) {
+                        break;
+                    }
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(stockEventDTO.getSequence()))
+                            .name(STOCK_EVENT)
+                            .data(stockEventDTO, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                buffer.clear();
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!buffer.isEmpty() || dropped.get() > 0) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidImportHeaderException extends Exception {
+
+    public InvalidImportHeaderException(String column) {
+        super(String.format("CSV header is missing required column %s.", column));
+    }
+}
@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidSearchCursorException extends Exception {
+
+    public InvalidSearchCursorException(String cursor) {
+        super(String.format("Search cursor %s is invalid or was issued for a different sort.", cursor));
+    }
+}
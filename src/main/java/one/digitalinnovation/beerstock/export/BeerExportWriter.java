@@ -0,0 +1,131 @@
+package one.digitalinnovation.beerstock.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import one.digitalinnovation.beerstock.enums.ExportFormat;
+import one.digitalinnovation.beerstock.stock.StockTable;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public abstract class BeerExportWriter implements RowCallbackHandler, Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final StockTable stockTable;
+    private long rows;
+
+    protected BeerExportWriter(StockTable stockTable) {
+        this.stockTable = stockTable;
+    }
+
+    public static BeerExportWriter of(ExportFormat format, OutputStream outputStream, JsonFactory jsonFactory, StockTable stockTable) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            return new NdjsonWriter(outputStream, jsonFactory, stockTable);
+        }
+        return new CsvWriter(outputStream, stockTable);
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        long id = rs.getLong(1);
+        try {
+            write(id, rs.getString(2), rs.getString(3), rs.getInt(4), stockTable.overlayQuantity(id, rs.getInt(5)), rs.getString(6));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rows++;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    protected abstract void write(long id, String name, String brand, int max, int quantity, String type) throws IOException;
+
+    private static class CsvWriter extends BeerExportWriter {
+
+        private final Writer writer;
+
+        CsvWriter(OutputStream outputStream, StockTable stockTable) throws IOException {
+            super(stockTable);
+            this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write("id,name,brand,max,quantity,type\r\n");
+        }
+
+        @Override
+        protected void write(long id, String name, String brand, int max, int quantity, String type) throws IOException {
+            writer.write(Long.toString(id));
+            writer.write(',');
+            writeField(name);
+            writer.write(',');
+            writeField(brand);
+            writer.write(',');
+            writer.write(Integer.toString(max));
+            writer.write(',');
+            writer.write(Integer.toString(quantity));
+            writer.write(',');
+            writer.write(type);
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quoted = false;
+            for (int i = 0; i < value.length() && !quoted; i++) {
+                char c = value.charAt(i);
+                quoted = c == ',' || c == '"' || c == '\r' || c == '\n';
+            }
+            if (!quoted) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static class NdjsonWriter extends BeerExportWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonWriter(OutputStream outputStream, JsonFactory jsonFactory, StockTable stockTable) throws IOException {
+            super(stockTable);
+            this.generator = jsonFactory.createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+        }
+
+        @Override
+        protected void write(long id, String name, String brand, int max, int quantity, String type) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", id);
+            generator.writeStringField("name", name);
+            generator.writeStringField("brand", brand);
+            generator.writeNumberField("max", max);
+            generator.writeNumberField("quantity", quantity);
+            generator.writeStringField("type", type);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
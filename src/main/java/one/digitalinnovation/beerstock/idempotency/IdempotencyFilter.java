@@ -0,0 +1,298 @@
+package one.digitalinnovation.beerstock.idempotency;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Replays the stored response of a mutating request that is retried with the same Idempotency-Key.
+ * <p>
+ * The response is persisted by {@link IdempotencyStore#save} in its own transaction, after the handler
+ * has already committed its changes. The two commits are not atomic: if the process dies between them,
+ * no record is left behind and a retry with the same key executes the request again.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 200;
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final IdempotencyStore idempotencyStore;
+    private final int maxBodySize;
+    private final Duration inFlightTimeout;
+
+    @Autowired
+    public IdempotencyFilter(IdempotencyStore idempotencyStore,
+                             @Value("${beerstock.idempotency.max-body-size:64KB}") DataSize maxBodySize,
+                             @Value("${beerstock.idempotency.in-flight-timeout:30s}") Duration inFlightTimeout) {
+        this.idempotencyStore = idempotencyStore;
+        this.maxBodySize = (int) maxBodySize.toBytes();
+        this.inFlightTimeout = inFlightTimeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(IDEMPOTENCY_KEY_HEADER) == null || !MUTATING_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        String contentType = request.getContentType();
+        return contentType != null && !MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    String.format("Idempotency-Key must have between 1 and %s characters.", MAX_KEY_LENGTH));
+            return;
+        }
+        byte[] body = StreamUtils.copyToByteArray(new BoundedInputStream(request.getInputStream(), maxBodySize + 1));
+        if (body.length > maxBodySize) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                    String.format("Requests with an Idempotency-Key are limited to %s bytes.", maxBodySize));
+            return;
+        }
+        String fingerprint = fingerprint(request, body);
+
+        CompletableFuture<IdempotentResponse> stored = idempotencyStore.get(key);
+        if (stored == null) {
+            CompletableFuture<IdempotentResponse> claim = new CompletableFuture<>();
+            stored = idempotencyStore.putIfAbsent(key, claim);
+            if (stored == null) {
+                Optional<IdempotentResponse> persisted;
+                try {
+                    persisted = idempotencyStore.load(key);
+                } catch (RuntimeException e) {
+                    idempotencyStore.abandon(key, claim);
+                    claim.completeExceptionally(e);
+                    throw e;
+                }
+                if (persisted.isPresent()) {
+                    claim.complete(persisted.get());
+                    replay(persisted.get(), fingerprint, response);
+                } else {
+                    execute(key, claim, fingerprint, new CachedBodyRequest(request, body), response, filterChain);
+                }
+                return;
+            }
+        }
+        awaitAndReplay(stored, fingerprint, response);
+    }
+
+    private void execute(String key, CompletableFuture<IdempotentResponse> claim, String fingerprint,
+                         HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } catch (ServletException | IOException | RuntimeException e) {
+            idempotencyStore.abandon(key, claim);
+            claim.completeExceptionally(e);
+            throw e;
+        }
+        if (HttpStatus.valueOf(responseWrapper.getStatus()).is2xxSuccessful()) {
+            IdempotentResponse idempotentResponse = new IdempotentResponse(fingerprint, responseWrapper.getStatus(),
+                    responseWrapper.getContentType(), responseWrapper.getContentAsByteArray());
+            claim.complete(idempotentResponse);
+            idempotencyStore.save(key, idempotentResponse);
+        } else {
+            idempotencyStore.abandon(key, claim);
+            claim.completeExceptionally(new IllegalStateException(
+                    String.format("Request with Idempotency-Key %s failed with status %s", key, responseWrapper.getStatus())));
+        }
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private void awaitAndReplay(CompletableFuture<IdempotentResponse> stored, String fingerprint,
+                                HttpServletResponse response) throws IOException {
+        IdempotentResponse idempotentResponse;
+        try {
+            idempotentResponse = stored.get(inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.CONFLICT.value(), "A request with this Idempotency-Key is still in progress.");
+            return;
+        } catch (TimeoutException e) {
+            response.sendError(HttpStatus.CONFLICT.value(), "A request with this Idempotency-Key is still in progress.");
+            return;
+        } catch (ExecutionException e) {
+            response.sendError(HttpStatus.CONFLICT.value(), "The original request with this Idempotency-Key failed; retry it.");
+            return;
+        }
+        replay(idempotentResponse, fingerprint, response);
+    }
+
+    private void replay(IdempotentResponse idempotentResponse, String fingerprint, HttpServletResponse response)
+            throws IOException {
+        if (!idempotentResponse.getFingerprint().equals(fingerprint)) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    "Idempotency-Key was already used for a different request.");
+            return;
+        }
+        idempotencyStore.recordReplay();
+        response.setStatus(idempotentResponse.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (idempotentResponse.getContentType() != null) {
+            response.setContentType(idempotentResponse.getContentType());
+        }
+        byte[] body = idempotentResponse.getBody();
+        if (body != null && body.length > 0) {
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+        if (request.getQueryString() != null) {
+            digest.update((byte) '?');
+            digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) '\n');
+        digest.update(body);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+    }
+
+    private static class BoundedInputStream extends InputStream {
+
+        private final InputStream delegate;
+        private int remaining;
+
+        BoundedInputStream(InputStream delegate, int limit) {
+            this.delegate = delegate;
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = delegate.read();
+            if (read >= 0) {
+                remaining--;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = delegate.read(buffer, offset, Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The body is already in memory, so every callback can fire right away.
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package one.digitalinnovation.beerstock.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import one.digitalinnovation.beerstock.entity.IdempotencyRecord;
+import one.digitalinnovation.beerstock.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class IdempotencyStore {
+
+    private static final String CACHE_NAME = "idempotency";
+    private static final String REPLAYS_COUNTER = "beerstock.idempotency.replays";
+    private static final String PERSIST_FAILURES_COUNTER = "beerstock.idempotency.persist.failures";
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Cache<String, CompletableFuture<IdempotentResponse>> responsesByKey;
+    private final Counter replays;
+    private final Counter persistFailures;
+    private final Duration ttl;
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${beerstock.idempotency.maximum-size:100000}") long maximumSize,
+                            @Value("${beerstock.idempotency.ttl:24h}") Duration ttl) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.ttl = ttl;
+        this.responsesByKey = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.replays = Counter.builder(REPLAYS_COUNTER)
+                .description("Requests answered with the stored response of an earlier request with the same Idempotency-Key")
+                .register(meterRegistry);
+        this.persistFailures = Counter.builder(PERSIST_FAILURES_COUNTER)
+                .description("Idempotent responses kept only in memory because the database write failed")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, responsesByKey, CACHE_NAME);
+    }
+
+    public CompletableFuture<IdempotentResponse> get(String key) {
+        return responsesByKey.getIfPresent(key);
+    }
+
+    public CompletableFuture<IdempotentResponse> putIfAbsent(String key, CompletableFuture<IdempotentResponse> claim) {
+        return responsesByKey.asMap().putIfAbsent(key, claim);
+    }
+
+    public Optional<IdempotentResponse> load(String key) {
+        Instant oldest = Instant.now().minus(ttl);
+        return idempotencyRecordRepository.findById(key)
+                .filter(record -> record.getCreatedAt().isAfter(oldest))
+                .map(record -> new IdempotentResponse(record.getFingerprint(), record.getStatus(), record.getContentType(), record.getBody()));
+    }
+
+    /**
+     * Persists in a transaction of its own, separate from the handler's; see {@link IdempotencyFilter}
+     * for what that means for a retry after a crash.
+     */
+    public void save(String key, IdempotentResponse response) {
+        Instant now = Instant.now();
+        try {
+            idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                    .key(key)
+                    .fingerprint(response.getFingerprint())
+                    .status(response.getStatus())
+                    .contentType(response.getContentType())
+                    .body(response.getBody())
+                    .createdAt(now)
+                    .build());
+            purgeExpired(now);
+        } catch (DataAccessException e) {
+            persistFailures.increment();
+        }
+    }
+
+    public void recordReplay() {
+        replays.increment();
+    }
+
+    public void abandon(String key, CompletableFuture<IdempotentResponse> claim) {
+        responsesByKey.asMap().remove(key, claim);
+    }
+
+    private void purgeExpired(Instant now) {
+        long purgeAt = nextPurge.get();
+        if (now.toEpochMilli() >= purgeAt && nextPurge.compareAndSet(purgeAt, now.plus(ttl.dividedBy(24)).toEpochMilli())) {
+            idempotencyRecordRepository.deleteCreatedBefore(now.minus(ttl));
+        }
+    }
+}
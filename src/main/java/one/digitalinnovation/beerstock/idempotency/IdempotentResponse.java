@@ -0,0 +1,17 @@
+package one.digitalinnovation.beerstock.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class IdempotentResponse {
+
+    private String fingerprint;
+
+    private int status;
+
+    private String contentType;
+
+    private byte[] body;
+}
@@ -0,0 +1,268 @@
+package one.digitalinnovation.beerstock.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class StockJournal implements Closeable {
+
+    public static final int DELETED = -1;
+
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 32;
+
+    private static final long MAGIC = 0x4245455253544B4AL;
+    private static final int VERSION = 1;
+    private static final int BEER_ID_OFFSET = 0;
+    private static final int TIMESTAMP_OFFSET = 8;
+    private static final int DELTA_OFFSET = 16;
+    private static final int QUANTITY_OFFSET = 20;
+    private static final int CHECKSUM_OFFSET = 24;
+
+    private final Path path;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong nextRecord = new AtomicLong();
+    private volatile long syncedRecords;
+    private long capacity;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    public StockJournal(Path path, long capacity) {
+        this.path = path;
+        this.capacity = capacity;
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            boolean exists = Files.exists(path) && Files.size(path) >= HEADER_SIZE;
+            if (exists) {
+                this.capacity = Math.max(capacity, (Files.size(path) - HEADER_SIZE) / RECORD_SIZE);
+            }
+            map(path, this.capacity);
+            if (exists) {
+                verifyHeader();
+                nextRecord.set(recover());
+            } else {
+                writeHeader();
+            }
+            syncedRecords = nextRecord.get();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void append(long beerId, int delta, int quantity, long timestamp) {
+        while (true) {
+            lock.readLock().lock();
+            try {
+                long record = nextRecord.getAndIncrement();
+                if (record < capacity) {
+                    write(buffer, record, beerId, delta, quantity, timestamp);
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            compactIfFull();
+        }
+    }
+
+    public Map<Long, Integer> replay() {
+        lock.writeLock().lock();
+        try {
+            Map<Long, Integer> quantities = new LinkedHashMap<>();
+            readLatest().forEach((beerId, record) -> {
+                if (record.quantity != DELETED) {
+                    quantities.put(beerId, record.quantity);
+                }
+            });
+            return Collections.unmodifiableMap(quantities);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            Map<Long, JournalRecord> latest = readLatest();
+            latest.values().removeIf(record -> record.quantity == DELETED);
+            long compactedCapacity = Math.max(capacity, latest.size() * 2L);
+            Path compactedPath = path.resolveSibling(path.getFileName() + ".compacting");
+            Files.deleteIfExists(compactedPath);
+            try (FileChannel compactedChannel = FileChannel.open(compactedPath,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer compacted = compactedChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + compactedCapacity * RECORD_SIZE);
+                writeHeader(compacted);
+                long record = 0;
+                for (Map.Entry<Long, JournalRecord> entry : latest.entrySet()) {
+                    JournalRecord journalRecord = entry.getValue();
+                    write(compacted, record++, entry.getKey(), journalRecord.delta, journalRecord.quantity, journalRecord.timestamp);
+                }
+                compacted.force();
+            }
+            channel.close();
+            Files.move(compactedPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            capacity = compactedCapacity;
+            map(path, capacity);
+            nextRecord.set(latest.size());
+            syncedRecords = latest.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void sync() {
+        lock.readLock().lock();
+        try {
+            long written = Math.min(nextRecord.get(), capacity);
+            if (written > syncedRecords) {
+                buffer.force();
+                syncedRecords = written;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long size() {
+        return Math.min(nextRecord.get(), capacity);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactIfFull() {
+        lock.writeLock().lock();
+        try {
+            // Another appender that overflowed may already have compacted while this one waited for the lock
+            if (nextRecord.get() >= capacity) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void map(Path path, long capacity) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + capacity * RECORD_SIZE);
+    }
+
+    private void writeHeader() {
+        writeHeader(buffer);
+        buffer.force();
+    }
+
+    private static void writeHeader(ByteBuffer target) {
+        target.putLong(0, MAGIC);
+        target.putInt(8, VERSION);
+        target.putInt(12, RECORD_SIZE);
+    }
+
+    private void verifyHeader() {
+        if (buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION || buffer.getInt(12) != RECORD_SIZE) {
+            throw new IllegalStateException("File " + path + " is not a stock journal");
+        }
+    }
+
+    private long recover() {
+        long record = 0;
+        while (record < capacity && read(record) != null) {
+            record++;
+        }
+        // Valid slots past the first torn record predate the crash and would be replayed after a second one
+        if (record < capacity) {
+            for (int offset = offset(record); offset < offset(capacity); offset++) {
+                buffer.put(offset, (byte) 0);
+            }
+            buffer.force();
+        }
+        return record;
+    }
+
+    private Map<Long, JournalRecord> readLatest() {
+        Map<Long, JournalRecord> latest = new LinkedHashMap<>();
+        long written = Math.min(nextRecord.get(), capacity);
+        for (long record = 0; record < written; record++) {
+            JournalRecord journalRecord = read(record);
+            if (journalRecord != null) {
+                latest.remove(journalRecord.beerId);
+                latest.put(journalRecord.beerId, journalRecord);
+            }
+        }
+        return latest;
+    }
+
+    private JournalRecord read(long record) {
+        int offset = offset(record);
+        long beerId = buffer.getLong(offset + BEER_ID_OFFSET);
+        long timestamp = buffer.getLong(offset + TIMESTAMP_OFFSET);
+        int delta = buffer.getInt(offset + DELTA_OFFSET);
+        int quantity = buffer.getInt(offset + QUANTITY_OFFSET);
+        if (buffer.getInt(offset + CHECKSUM_OFFSET) != checksum(beerId, delta, quantity, timestamp)) {
+            return null;
+        }
+        return new JournalRecord(beerId, delta, quantity, timestamp);
+    }
+
+    private static void write(ByteBuffer target, long record, long beerId, int delta, int quantity, long timestamp) {
+        int offset = offset(record);
+        target.putLong(offset + BEER_ID_OFFSET, beerId);
+        target.putLong(offset + TIMESTAMP_OFFSET, timestamp);
+        target.putInt(offset + DELTA_OFFSET, delta);
+        target.putInt(offset + QUANTITY_OFFSET, quantity);
+        target.putInt(offset + CHECKSUM_OFFSET, checksum(beerId, delta, quantity, timestamp));
+    }
+
+    private static int offset(long record) {
+        return Math.toIntExact(HEADER_SIZE + record * RECORD_SIZE);
+    }
+
+    private static int checksum(long beerId, int delta, int quantity, long timestamp) {
+        long hash = 0x9E3779B97F4A7C15L;
+        hash = (hash ^ beerId) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ timestamp) * 0xc4ceb9fe1a85ec53L;
+        hash = (hash ^ (((long) delta << 32) | (quantity & 0xFFFFFFFFL))) * 0xff51afd7ed558ccdL;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static final class JournalRecord {
+
+        private final long beerId;
+        private final int delta;
+        private final int quantity;
+        private final long timestamp;
+
+        private JournalRecord(long beerId, int delta, int quantity, long timestamp) {
+            this.beerId = beerId;
+            this.delta = delta;
+            this.quantity = quantity;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package one.digitalinnovation.beerstock.journal;
+
+import one.digitalinnovation.beerstock.enums.StockEventType;
+import one.digitalinnovation.beerstock.event.BeerStockChangedEvent;
+import one.digitalinnovation.beerstock.repository.BeerJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(prefix = "beerstock.journal", name = "enabled", havingValue = "true")
+public class StockJournalRecorder {
+
+    private final StockJournal stockJournal;
+    private final BeerJdbcRepository beerJdbcRepository;
+    private final boolean replayOnStartup;
+    private final ScheduledExecutorService syncExecutor;
+
+    @Autowired
+    public StockJournalRecorder(BeerJdbcRepository beerJdbcRepository,
+                                @Value("${beerstock.journal.path:data/stock.journal}") String path,
+                                @Value("${beerstock.journal.capacity:1000000}") long capacity,
+                                @Value("${beerstock.journal.sync-interval:100ms}") Duration syncInterval,
+                                @Value("${beerstock.journal.replay-on-startup:false}") boolean replayOnStartup) {
+        this.stockJournal = new StockJournal(Paths.get(path), capacity);
+        this.beerJdbcRepository = beerJdbcRepository;
+        this.replayOnStartup = replayOnStartup;
+        this.syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long syncMillis = syncInterval.toMillis();
+        syncExecutor.scheduleWithFixedDelay(stockJournal::sync, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(BeerStockChangedEvent event) {
+        int quantity = event.getEventType() == StockEventType.DELETED ? StockJournal.DELETED : event.getQuantity();
+        stockJournal.append(event.getId(), event.getDelta(), quantity, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void replay() {
+        if (!replayOnStartup) {
+            return;
+        }
+        Map<Long, Integer> quantities = stockJournal.replay();
+        if (!quantities.isEmpty()) {
+            beerJdbcRepository.updateQuantities(quantities);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        syncExecutor.shutdown();
+        stockJournal.close();
+    }
+}
@@ -0,0 +1,127 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class BeerMetrics {
+
+    public static final String VALIDATION = "validation";
+    public static final String FILTER = "filter";
+    public static final String CACHE = "cache";
+    public static final String REPOSITORY = "repository";
+    public static final String MAPPING = "mapping";
+    public static final String STOCK = "stock";
+
+    private static final String SERVICE_TIMER = "beerstock.service";
+    private static final String SERIALIZATION_TIMER = "beerstock.serialization";
+    private static final String EXCEPTIONS_COUNTER = "beerstock.exceptions";
+    private static final String INCREMENT_BATCH_SUMMARY = "beerstock.increments.batch.size";
+    private static final String IN_FLIGHT_INCREMENTS_GAUGE = "beerstock.increments.in.flight";
+    private static final String OPTIMISTIC_CONFLICTS_COUNTER = "beerstock.optimistic.conflicts";
+    private static final String OPTIMISTIC_RETRIES_COUNTER = "beerstock.optimistic.retries";
+    private static final String OPTIMISTIC_EXHAUSTED_COUNTER = "beerstock.optimistic.exhausted";
+    private static final int MAX_TRACKED_BEER_IDS = 10000;
+    private static final String OTHER_BEER_IDS = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Exception>, Counter> exceptionCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> optimisticCounters = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> inFlightIncrements = new ConcurrentHashMap<>();
+    private final AtomicInteger otherInFlightIncrements;
+    private final DistributionSummary incrementBatchSizes;
+
+    @Autowired
+    public BeerMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.otherInFlightIncrements = registerInFlightGauge(OTHER_BEER_IDS);
+        this.incrementBatchSizes = DistributionSummary.builder(INCREMENT_BATCH_SUMMARY)
+                .description("Increments applied per coalesced UPDATE")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stop(Timer.Sample sample, String operation, String phase) {
+        sample.stop(timers.computeIfAbsent(operation + '.' + phase, key -> Timer.builder(SERVICE_TIMER)
+                .description("Latency of each BeerService operation, split by phase")
+                .tag("operation", operation)
+                .tag("phase", phase)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)));
+    }
+
+    public Timer serializationTimer(String type) {
+        return timers.computeIfAbsent("serialization." + type, key -> Timer.builder(SERIALIZATION_TIMER)
+                .description("Latency of writing response bodies as JSON")
+                .tag("type", type)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+    }
+
+    public <E extends Exception> E counted(E exception) {
+        exceptionCounters.computeIfAbsent(exception.getClass(), type -> Counter.builder(EXCEPTIONS_COUNTER)
+                .description("Business exceptions raised by BeerService")
+                .tag("exception", type.getSimpleName())
+                .register(meterRegistry))
+                .increment();
+        return exception;
+    }
+
+    public AtomicInteger inFlightIncrements(Long id) {
+        AtomicInteger inFlight = inFlightIncrements.get(id);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        if (inFlightIncrements.size() >= MAX_TRACKED_BEER_IDS) {
+            return otherInFlightIncrements;
+        }
+        return inFlightIncrements.computeIfAbsent(id, key -> registerInFlightGauge(String.valueOf(key)));
+    }
+
+    public void recordIncrementBatch(int size) {
+        incrementBatchSizes.record(size);
+    }
+
+    public void recordOptimisticConflict(String operation) {
+        optimisticCounter(OPTIMISTIC_CONFLICTS_COUNTER, "Version conflicts detected on optimistic writes", operation).increment();
+    }
+
+    public void recordOptimisticRetry(String operation) {
+        optimisticCounter(OPTIMISTIC_RETRIES_COUNTER, "Optimistic writes retried after a version conflict", operation).increment();
+    }
+
+    public void recordOptimisticExhausted(String operation) {
+        optimisticCounter(OPTIMISTIC_EXHAUSTED_COUNTER, "Optimistic writes that gave up after the last attempt", operation).increment();
+    }
+
+    private Counter optimisticCounter(String name, String description, String operation) {
+        return optimisticCounters.computeIfAbsent(name + '.' + operation, key -> Counter.builder(name)
+                .description(description)
+                .tag("operation", operation)
+                .register(meterRegistry));
+    }
+
+    private AtomicInteger registerInFlightGauge(String beerId) {
+        AtomicInteger inFlight = new AtomicInteger();
+        Gauge.builder(IN_FLIGHT_INCREMENTS_GAUGE, inFlight, AtomicInteger::get)
+                .description("Stock increments currently being applied, per beer id")
+                .tag("beerId", beerId)
+                .register(meterRegistry);
+        return inFlight;
+    }
+}
@@ -0,0 +1,47 @@
+package one.digitalinnovation.beerstock.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public class TimedMappingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final BeerMetrics beerMetrics;
+
+    public TimedMappingJackson2HttpMessageConverter(ObjectMapper objectMapper, BeerMetrics beerMetrics) {
+        super(objectMapper);
+        this.beerMetrics = beerMetrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+        Timer.Sample serialization = beerMetrics.start();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            serialization.stop(beerMetrics.serializationTimer(typeName(object, type)));
+        }
+    }
+
+    private static String typeName(Object object, Type type) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            return simpleName(parameterizedType.getRawType()) + Arrays.stream(parameterizedType.getActualTypeArguments())
+                    .map(TimedMappingJackson2HttpMessageConverter::simpleName)
+                    .collect(Collectors.joining(",", "<", ">"));
+        }
+        return type instanceof Class ? ((Class<?>) type).getSimpleName() : object.getClass().getSimpleName();
+    }
+
+    private static String simpleName(Type type) {
+        return type instanceof Class ? ((Class<?>) type).getSimpleName() : type.getTypeName();
+    }
+}
@@ -0,0 +1,16 @@
+package one.digitalinnovation.beerstock.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Tokens a call to the annotated handler takes from the client and endpoint buckets; handlers without it cost 1.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdmissionCost {
+
+    int value();
+}
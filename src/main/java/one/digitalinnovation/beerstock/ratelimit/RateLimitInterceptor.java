@@ -0,0 +1,68 @@
+package one.digitalinnovation.beerstock.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.security.Principal;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final int DEFAULT_COST = 1;
+
+    private final RateLimiter rateLimiter;
+    private final String clientIdHeader;
+    private final Set<String> trustedProxies;
+
+    @Autowired
+    public RateLimitInterceptor(RateLimiter rateLimiter,
+                                @Value("${beerstock.ratelimit.client-id-header:X-Client-Id}") String clientIdHeader,
+                                @Value("${beerstock.ratelimit.trusted-proxies:}") Set<String> trustedProxies) {
+        this.rateLimiter = rateLimiter;
+        this.clientIdHeader = clientIdHeader;
+        this.trustedProxies = Set.copyOf(trustedProxies);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!rateLimiter.isEnabled() || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        AdmissionCost admissionCost = handlerMethod.getMethodAnnotation(AdmissionCost.class);
+        int cost = admissionCost == null ? DEFAULT_COST : admissionCost.value();
+        long wait = rateLimiter.admit(clientId(request), handlerMethod.getMethod().getName(), cost);
+        if (wait == 0) {
+            return true;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999L))));
+        return false;
+    }
+
+    // The client id header is caller-controlled: honoring it from anyone would let a client rotate values
+    // for fresh buckets, so it is only read when the request comes through a configured trusted proxy.
+    private String clientId(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return principal.getName();
+        }
+        String remoteAddr = request.getRemoteAddr();
+        if (trustedProxies.contains(remoteAddr)) {
+            String clientId = request.getHeader(clientIdHeader);
+            if (clientId != null && !clientId.isBlank()) {
+                return clientId;
+            }
+        }
+        return remoteAddr;
+    }
+}
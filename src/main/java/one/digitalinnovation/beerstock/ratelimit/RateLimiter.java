@@ -0,0 +1,117 @@
+package one.digitalinnovation.beerstock.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class RateLimiter {
+
+    private static final String ADMITTED_COUNTER = "beerstock.ratelimit.admitted";
+    private static final String REJECTED_COUNTER = "beerstock.ratelimit.rejected";
+    private static final String CLIENT_LIMIT = "client";
+    private static final String ENDPOINT_LIMIT = "endpoint";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int clientCapacity;
+    private final double clientTokensPerSecond;
+    private final int endpointCapacity;
+    private final double endpointTokensPerSecond;
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final Map<String, TokenBucket> endpointBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${beerstock.ratelimit.enabled:true}") boolean enabled,
+                       @Value("${beerstock.ratelimit.client.capacity:200}") int clientCapacity,
+                       @Value("${beerstock.ratelimit.client.tokens-per-second:100}") double clientTokensPerSecond,
+                       @Value("${beerstock.ratelimit.endpoint.capacity:2000}") int endpointCapacity,
+                       @Value("${beerstock.ratelimit.endpoint.tokens-per-second:1000}") double endpointTokensPerSecond,
+                       @Value("${beerstock.ratelimit.max-clients:10000}") long maxClients,
+                       @Value("${beerstock.ratelimit.client-idle-timeout:10m}") Duration clientIdleTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.clientCapacity = clientCapacity;
+        this.clientTokensPerSecond = clientTokensPerSecond;
+        this.endpointCapacity = endpointCapacity;
+        this.endpointTokensPerSecond = endpointTokensPerSecond;
+        this.clientBuckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(clientIdleTimeout)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes {@code cost} tokens from both the client's bucket and the endpoint's bucket, or from neither.
+     *
+     * @return 0 when the request is admitted, otherwise the nanoseconds the client should wait before retrying
+     */
+    public long admit(String clientId, String endpoint, int cost) {
+        long now = System.nanoTime();
+        TokenBucket clientBucket = clientBuckets.get(clientId, key -> new TokenBucket(clientCapacity, clientTokensPerSecond, now));
+        long wait = clientBucket.tryAcquire(cost, now);
+        if (wait > 0) {
+            counter(REJECTED_COUNTER, endpoint, CLIENT_LIMIT).increment();
+            return wait;
+        }
+        TokenBucket endpointBucket = endpointBuckets.computeIfAbsent(endpoint, key -> new TokenBucket(endpointCapacity, endpointTokensPerSecond, now));
+        wait = endpointBucket.tryAcquire(cost, now);
+        if (wait > 0) {
+            clientBucket.refund(cost);
+            counter(REJECTED_COUNTER, endpoint, ENDPOINT_LIMIT).increment();
+            return wait;
+        }
+        counter(ADMITTED_COUNTER, endpoint, null).increment();
+        return 0;
+    }
+
+    public Map<String, Long> availableClientTokens() {
+        long now = System.nanoTime();
+        Map<String, Long> available = new HashMap<>();
+        clientBuckets.asMap().forEach((clientId, bucket) -> available.put(clientId, bucket.availableTokens(now)));
+        return available;
+    }
+
+    public Map<String, Long> availableEndpointTokens() {
+        long now = System.nanoTime();
+        Map<String, Long> available = new HashMap<>();
+        endpointBuckets.forEach((endpoint, bucket) -> available.put(endpoint, bucket.availableTokens(now)));
+        return available;
+    }
+
+    public Map<String, Object> limits() {
+        return Map.of(
+                "enabled", enabled,
+                "clientCapacity", clientCapacity,
+                "clientTokensPerSecond", clientTokensPerSecond,
+                "endpointCapacity", endpointCapacity,
+                "endpointTokensPerSecond", endpointTokensPerSecond);
+    }
+
+    private Counter counter(String name, String endpoint, String limit) {
+        return counters.computeIfAbsent(name + '.' + endpoint + '.' + limit, key -> {
+            Counter.Builder builder = Counter.builder(name).tag("endpoint", endpoint);
+            if (limit == null) {
+                builder.description("Requests admitted by the per-client and per-endpoint token buckets");
+            } else {
+                builder.description("Requests answered with 429 because a token bucket was empty").tag("limit", limit);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+}
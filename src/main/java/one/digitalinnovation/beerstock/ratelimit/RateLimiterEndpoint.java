@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstock.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "ratelimiter")
+public class RateLimiterEndpoint {
+
+    private final RateLimiter rateLimiter;
+
+    @Autowired
+    public RateLimiterEndpoint(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> rateLimiter() {
+        return Map.of(
+                "limits", rateLimiter.limits(),
+                "clients", rateLimiter.availableClientTokens(),
+                "endpoints", rateLimiter.availableEndpointTokens());
+    }
+}
@@ -0,0 +1,49 @@
+package one.digitalinnovation.beerstock.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single theoretical arrival time, so taking tokens is one CAS and never blocks.
+ * A bucket that is {@code n} tokens short of full has its arrival time {@code n} refill intervals ahead of now.
+ */
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, double tokensPerSecond, long now) {
+        this.nanosPerToken = (long) (1_000_000_000L / tokensPerSecond);
+        this.burstNanos = capacity * nanosPerToken;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Takes {@code tokens} from the bucket.
+     *
+     * @return 0 when the tokens were taken, otherwise the nanoseconds until enough tokens are available
+     */
+    public long tryAcquire(int tokens, long now) {
+        long cost = tokens * nanosPerToken;
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long nextArrival = Math.max(arrival, now) + cost;
+            long wait = nextArrival - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, nextArrival)) {
+                return 0;
+            }
+        }
+    }
+
+    public void refund(int tokens) {
+        theoreticalArrival.addAndGet(-tokens * nanosPerToken);
+    }
+
+    public long availableTokens(long now) {
+        long debt = Math.max(0, theoreticalArrival.get() - now);
+        return Math.max(0, burstNanos - debt) / nanosPerToken;
+    }
+}
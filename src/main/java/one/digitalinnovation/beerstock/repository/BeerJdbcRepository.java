@@ -0,0 +1,87 @@
+package one.digitalinnovation.beerstock.repository;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerJdbcRepository {
+
+    private static final String INCREMENT_QUANTITY_SQL =
+            "UPDATE beer SET quantity = quantity + ?, version = version + 1 WHERE id = ? AND quantity + ? <= max";
+
+    private static final String UPDATE_QUANTITY_SQL =
+            "UPDATE beer SET quantity = ?, version = version + 1 WHERE id = ?";
+
+    private static final String ADD_QUANTITY_SQL =
+            "UPDATE beer SET quantity = quantity + ?, version = version + 1 WHERE id = ?";
+
+    private static final String EXPORT_SQL =
+            "SELECT id, name, brand, max, quantity, type FROM beer ORDER BY id";
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void exportAll(RowCallbackHandler rowCallbackHandler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            return ps;
+        }, rowCallbackHandler);
+    }
+
+    public int[] incrementQuantities(List<StockAdjustmentDTO> adjustments) {
+        return jdbcTemplate.batchUpdate(INCREMENT_QUANTITY_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockAdjustmentDTO adjustment = adjustments.get(i);
+                ps.setInt(1, adjustment.getQuantity());
+                ps.setLong(2, adjustment.getId());
+                ps.setInt(3, adjustment.getQuantity());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return adjustments.size();
+            }
+        });
+    }
+
+    public int[] updateQuantities(Map<Long, Integer> quantities) {
+        return batchUpdate(UPDATE_QUANTITY_SQL, quantities);
+    }
+
+    public int[] addQuantities(Map<Long, Integer> deltas) {
+        return batchUpdate(ADD_QUANTITY_SQL, deltas);
+    }
+
+    private int[] batchUpdate(String sql, Map<Long, Integer> quantitiesById) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantitiesById.entrySet());
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<Long, Integer> entry = entries.get(i);
+                ps.setInt(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+    }
+}
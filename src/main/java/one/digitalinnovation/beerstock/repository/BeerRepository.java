@@ -1,11 +1,87 @@
 package one.digitalinnovation.beerstock.repository;
 
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerTypeSummaryDTO;
 import one.digitalinnovation.beerstock.entity.Beer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BeerRepository extends JpaRepository<Beer, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface BeerRepository extends JpaRepository<Beer, Long>, BeerSearchRepository {
+
+    String BEER_DTO_PROJECTION = "select new one.digitalinnovation.beerstock.dto.BeerDTO(b.id, b.name, b.brand, b.max, b.quantity, b.type) from Beer b";
 
     Optional<Beer> findByName(String name);
+
+    @Override
+    @Transactional
+    Optional<Beer> findById(Long id);
+
+    List<Beer> findByNameIn(Collection<String> names);
+
+    @Transactional(readOnly = true)
+    @Query(BEER_DTO_PROJECTION + " where b.name = :name")
+    Optional<BeerDTO> findDTOByName(@Param("name") String name);
+
+    @Transactional(readOnly = true)
+    @Query(BEER_DTO_PROJECTION + " where b.name in :names")
+    List<BeerDTO> findDTOsByNameIn(@Param("names") Collection<String> names);
+
+    @Transactional(readOnly = true)
+    @Query(BEER_DTO_PROJECTION + " where b.id in :ids")
+    List<BeerDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query(BEER_DTO_PROJECTION)
+    List<BeerDTO> findAllDTOs();
+
+    @Transactional(readOnly = true)
+    @Query(BEER_DTO_PROJECTION + " where b.id > :id order by b.id")
+    List<BeerDTO> findDTOsAfter(@Param("id") Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select b from Beer b order by b.id")
+    Stream<Beer> streamAll();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Beer b where b.id = :id")
+    Optional<Beer> findByIdForUpdate(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Beer b set b.quantity = b.quantity + :quantity, b.version = b.version + 1 where b.id = :id and b.quantity + :quantity <= b.max")
+    int incrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Beer b set b.quantity = b.quantity - :quantity, b.version = b.version + 1 where b.id = :id and b.quantity - :quantity >= 0")
+    int decrementQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Beer b set b.quantity = b.quantity + :quantity, b.version = b.version + 1 where b.id = :id")
+    int restoreQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Query("select new one.digitalinnovation.beerstock.dto.BeerTypeSummaryDTO(b.type, count(b), sum(b.quantity), sum(b.max)) " +
+            "from Beer b group by b.type")
+    List<BeerTypeSummaryDTO> summarizeByType();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b.name from Beer b")
+    Stream<String> streamAllNames();
 }
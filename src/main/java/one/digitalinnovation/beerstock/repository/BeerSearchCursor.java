@@ -0,0 +1,75 @@
+package one.digitalinnovation.beerstock.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerSortField;
+import one.digitalinnovation.beerstock.exception.InvalidSearchCursorException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Data
+@AllArgsConstructor
+public class BeerSearchCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private BeerSortField sort;
+
+    private Sort.Direction direction;
+
+    private Long id;
+
+    private Comparable<?> value;
+
+    public static BeerSearchCursor after(Beer beer, BeerSortField sort, Sort.Direction direction) {
+        return new BeerSearchCursor(sort, direction, beer.getId(), valueOf(beer, sort));
+    }
+
+    public static BeerSearchCursor decode(String cursor, BeerSortField sort, Sort.Direction direction) throws InvalidSearchCursorException {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+            if (parts.length != 4 || BeerSortField.valueOf(parts[0]) != sort || Sort.Direction.valueOf(parts[1]) != direction) {
+                throw new InvalidSearchCursorException(cursor);
+            }
+            return new BeerSearchCursor(sort, direction, Long.valueOf(parts[2]), parse(parts[3], sort));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSearchCursorException(cursor);
+        }
+    }
+
+    public String encode() {
+        String cursor = sort.name() + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Comparable<?> valueOf(Beer beer, BeerSortField sort) {
+        switch (sort) {
+            case NAME:
+                return beer.getName();
+            case BRAND:
+                return beer.getBrand();
+            case QUANTITY:
+                return beer.getQuantity();
+            case MAX:
+                return beer.getMax();
+            default:
+                return beer.getId();
+        }
+    }
+
+    private static Comparable<?> parse(String value, BeerSortField sort) {
+        switch (sort) {
+            case NAME:
+            case BRAND:
+                return value;
+            case QUANTITY:
+            case MAX:
+                return Integer.valueOf(value);
+            default:
+                return Long.valueOf(value);
+        }
+    }
+}
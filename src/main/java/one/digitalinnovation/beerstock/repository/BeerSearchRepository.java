@@ -0,0 +1,13 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.dto.BeerSearchDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerSortField;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface BeerSearchRepository {
+
+    List<Beer> search(BeerSearchDTO criteria, BeerSortField sort, Sort.Direction direction, BeerSearchCursor after, int limit);
+}
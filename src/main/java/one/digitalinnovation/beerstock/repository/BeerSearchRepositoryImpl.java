@@ -0,0 +1,80 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.dto.BeerSearchDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerSortField;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public class BeerSearchRepositoryImpl implements BeerSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Beer> search(BeerSearchDTO criteria, BeerSortField sort, Sort.Direction direction, BeerSearchCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Beer> query = cb.createQuery(Beer.class);
+        Root<Beer> beer = query.from(Beer.class);
+        Expression<Integer> quantity = beer.get("quantity");
+        Expression<Integer> max = beer.get("max");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getBrand() != null) {
+            predicates.add(cb.equal(beer.get("brand"), criteria.getBrand()));
+        }
+        if (criteria.getType() != null) {
+            predicates.add(cb.equal(beer.get("type"), criteria.getType()));
+        }
+        if (criteria.getMinQuantity() != null) {
+            predicates.add(cb.ge(quantity, criteria.getMinQuantity()));
+        }
+        if (criteria.getMaxQuantity() != null) {
+            predicates.add(cb.le(quantity, criteria.getMaxQuantity()));
+        }
+        if (criteria.getMinFillRatio() != null) {
+            predicates.add(cb.ge(quantity, cb.prod(max, criteria.getMinFillRatio())));
+        }
+        if (criteria.getMaxFillRatio() != null) {
+            predicates.add(cb.le(quantity, cb.prod(max, criteria.getMaxFillRatio())));
+        }
+        if (after != null) {
+            predicates.add(after(cb, beer, sort, direction, after));
+        }
+
+        Expression<?> sortKey = beer.get(sort.getProperty());
+        query.select(beer)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(direction.isAscending()
+                        ? List.of(cb.asc(sortKey), cb.asc(beer.get("id")))
+                        : List.of(cb.desc(sortKey), cb.desc(beer.get("id"))));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(HINT_READONLY, true)
+                .getResultList();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate after(CriteriaBuilder cb, Root<Beer> beer, BeerSortField sort, Sort.Direction direction, BeerSearchCursor cursor) {
+        Expression<Long> id = beer.get("id");
+        Predicate afterId = direction.isAscending() ? cb.greaterThan(id, cursor.getId()) : cb.lessThan(id, cursor.getId());
+        if (sort == BeerSortField.ID) {
+            return afterId;
+        }
+        Expression<Comparable> sortKey = beer.get(sort.getProperty());
+        Comparable value = cursor.getValue();
+        Predicate afterValue = direction.isAscending() ? cb.greaterThan(sortKey, value) : cb.lessThan(sortKey, value);
+        return cb.or(afterValue, cb.and(cb.equal(sortKey, value), afterId));
+    }
+}
@@ -0,0 +1,25 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.entity.Reservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface ReservationRepository extends JpaRepository<Reservation, String> {
+
+    @Modifying
+    @Query("delete from Reservation r where r.id = :id")
+    int deleteReservation(@Param("id") String id);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new one.digitalinnovation.beerstock.dto.ReservationDTO(r.id, r.beerId, r.quantity, r.expiresAt) from Reservation r")
+    Stream<ReservationDTO> streamAllDTOs();
+}
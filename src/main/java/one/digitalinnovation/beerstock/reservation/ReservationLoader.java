@@ -0,0 +1,28 @@
+package one.digitalinnovation.beerstock.reservation;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+@Component
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReservationLoader {
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationStore reservationStore;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        try (Stream<ReservationDTO> reservations = reservationRepository.streamAllDTOs()) {
+            reservations.forEach(reservationStore::track);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package one.digitalinnovation.beerstock.reservation;
+
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.entity.Reservation;
+import one.digitalinnovation.beerstock.event.ReservationExpiredEvent;
+import one.digitalinnovation.beerstock.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Holds open reservations. Each one is a row in the reservation table, written in the reserving transaction, plus an
+ * in-memory timing-wheel timeout that is only scheduled once that transaction commits; {@link ReservationLoader}
+ * reschedules the rows left open by a previous run.
+ */
+@Component
+public class ReservationStore {
+
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final HashedTimingWheel<String> timingWheel;
+    private final ReservationRepository reservationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor taskExecutor;
+    private final Duration defaultTtl;
+
+    @Autowired
+    public ReservationStore(ReservationRepository reservationRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor taskExecutor,
+                            @Value("${beerstock.reservations.default-ttl:15m}") Duration defaultTtl,
+                            @Value("${beerstock.reservations.tick-duration:100ms}") Duration tickDuration,
+                            @Value("${beerstock.reservations.ticks-per-wheel:512}") int ticksPerWheel) {
+        this.reservationRepository = reservationRepository;
+        this.eventPublisher = eventPublisher;
+        this.taskExecutor = taskExecutor;
+        this.defaultTtl = defaultTtl;
+        this.timingWheel = new HashedTimingWheel<>(tickDuration, ticksPerWheel, this::expire, "reservation-timing-wheel");
+    }
+
+    public ReservationDTO create(Long beerId, int quantity, Integer ttlSeconds) {
+        Duration ttl = ttlSeconds == null ? defaultTtl : Duration.ofSeconds(ttlSeconds);
+        ReservationDTO reservationDTO = ReservationDTO.builder()
+                .id(UUID.randomUUID().toString())
+                .beerId(beerId)
+                .quantity(quantity)
+                .expiresAt(Instant.now().plus(ttl))
+                .build();
+        reservationRepository.save(Reservation.builder()
+                .id(reservationDTO.getId())
+                .beerId(beerId)
+                .quantity(quantity)
+                .expiresAt(reservationDTO.getExpiresAt())
+                .build());
+        afterCompletion(committed -> {
+            if (committed) {
+                track(reservationDTO);
+            }
+        });
+        return reservationDTO;
+    }
+
+    public void track(ReservationDTO reservationDTO) {
+        Duration delay = Duration.between(Instant.now(), reservationDTO.getExpiresAt());
+        holds.put(reservationDTO.getId(), new Hold(reservationDTO,
+                timingWheel.schedule(reservationDTO.getId(), delay.isNegative() ? Duration.ZERO : delay)));
+    }
+
+    public Optional<ReservationDTO> remove(String id) {
+        Hold hold = holds.remove(id);
+        if (hold == null) {
+            return Optional.empty();
+        }
+        hold.timeout.cancel();
+        if (reservationRepository.deleteReservation(id) == 0) {
+            return Optional.empty();
+        }
+        afterCompletion(committed -> {
+            if (!committed) {
+                track(hold.reservationDTO);
+            }
+        });
+        return Optional.of(hold.reservationDTO);
+    }
+
+    /**
+     * Deletes the row of a reservation whose timeout fired.
+     *
+     * @return false when the row was already gone, so its units must not be restored again
+     */
+    public boolean removeExpired(String id) {
+        return reservationRepository.deleteReservation(id) > 0;
+    }
+
+    public int size() {
+        return holds.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        timingWheel.close();
+    }
+
+    private void expire(String id) {
+        Hold hold = holds.remove(id);
+        if (hold != null) {
+            taskExecutor.execute(() -> eventPublisher.publishEvent(new ReservationExpiredEvent(hold.reservationDTO)));
+        }
+    }
+
+    private static void afterCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private static final class Hold {
+
+        private final ReservationDTO reservationDTO;
+        private final HashedTimingWheel.Timeout<String> timeout;
+
+        private Hold(ReservationDTO reservationDTO, HashedTimingWheel.Timeout<String> timeout) {
+            this.reservationDTO = reservationDTO;
+            this.timeout = timeout;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package one.digitalinnovation.beerstock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.enums.ExportFormat;
+import one.digitalinnovation.beerstock.export.BeerExportWriter;
+import one.digitalinnovation.beerstock.metrics.BeerMetrics;
+import one.digitalinnovation.beerstock.repository.BeerJdbcRepository;
+import one.digitalinnovation.beerstock.stock.StockTable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static one.digitalinnovation.beerstock.metrics.BeerMetrics.REPOSITORY;
+
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerExportService {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final BeerJdbcRepository beerJdbcRepository;
+    private final StockTable stockTable;
+    private final ObjectMapper objectMapper;
+    private final BeerMetrics beerMetrics;
+
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, boolean gzip, OutputStream outputStream) throws IOException {
+        GZIPOutputStream gzipOutputStream = gzip ? new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE) : null;
+        Timer.Sample repository = beerMetrics.start();
+        long rows;
+        try (BeerExportWriter writer = BeerExportWriter.of(format, gzip ? gzipOutputStream : outputStream, objectMapper.getFactory(), stockTable)) {
+            beerJdbcRepository.exportAll(writer);
+            rows = writer.getRows();
+        } finally {
+            beerMetrics.stop(repository, "export", REPOSITORY);
+        }
+        if (gzipOutputStream != null) {
+            gzipOutputStream.finish();
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,219 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.csv.CsvFormatException;
+import one.digitalinnovation.beerstock.csv.CsvReader;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerImportErrorDTO;
+import one.digitalinnovation.beerstock.dto.BeerImportReportDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.InvalidImportHeaderException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class BeerImportService {
+
+    private static final List<String> COLUMNS = List.of("name", "brand", "max", "quantity", "type");
+
+    private final BeerService beerService;
+    private final OptimisticRetryPolicy optimisticRetryPolicy;
+    private final Validator validator;
+    private final int batchSize;
+    private final int maxErrors;
+
+    @Autowired
+    public BeerImportService(BeerService beerService,
+                             OptimisticRetryPolicy optimisticRetryPolicy,
+                             Validator validator,
+                             @Value("${beerstock.import.batch-size:500}") int batchSize,
+                             @Value("${beerstock.import.max-errors:1000}") int maxErrors) {
+        this.beerService = beerService;
+        this.optimisticRetryPolicy = optimisticRetryPolicy;
+        this.validator = validator;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxErrors = maxErrors;
+    }
+
+    public BeerImportReportDTO importCsv(InputStream inputStream) throws IOException, InvalidImportHeaderException {
+        try (CsvReader reader = new CsvReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = readHeader(reader.readRecord());
+            Import current = new Import();
+            while (true) {
+                List<String> record;
+                try {
+                    record = reader.readRecord();
+                } catch (CsvFormatException e) {
+                    current.reject(reader.getRecordNumber(), e.getMessage());
+                    continue;
+                }
+                if (record == null) {
+                    break;
+                }
+                current.read(reader.getRecordNumber(), record, columns);
+            }
+            current.flush();
+            return current.report();
+        }
+    }
+
+    private Map<String, Integer> readHeader(List<String> header) throws InvalidImportHeaderException {
+        Map<String, Integer> columns = new HashMap<>();
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                columns.putIfAbsent(header.get(i).toLowerCase(), i);
+            }
+        }
+        for (String column : COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new InvalidImportHeaderException(column);
+            }
+        }
+        return columns;
+    }
+
+    private class Import {
+
+        private final List<BeerDTO> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchRows = new ArrayList<>(batchSize);
+        private final Set<String> batchNames = new HashSet<>();
+        private final List<BeerImportErrorDTO> errors = new ArrayList<>();
+        private long rows;
+        private long created;
+        private long updated;
+        private long failed;
+
+        void read(long row, List<String> record, Map<String, Integer> columns) {
+            rows++;
+            BeerDTO beerDTO;
+            try {
+                beerDTO = BeerDTO.builder()
+                        .name(field(record, columns, "name"))
+                        .brand(field(record, columns, "brand"))
+                        .max(integerField(record, columns, "max"))
+                        .quantity(integerField(record, columns, "quantity"))
+                        .type(typeField(record, columns))
+                        .build();
+            } catch (IllegalArgumentException e) {
+                fail(row, e.getMessage());
+                return;
+            }
+            Set<ConstraintViolation<BeerDTO>> violations = validator.validate(beerDTO);
+            if (!violations.isEmpty()) {
+                fail(row, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+            if (!batchNames.add(beerDTO.getName())) {
+                flush();
+                batchNames.add(beerDTO.getName());
+            }
+            batch.add(beerDTO);
+            batchRows.add(row);
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                int createdRows = upsert();
+                created += createdRows;
+                updated += batch.size() - createdRows;
+            } catch (DataAccessException e) {
+                batchRows.forEach(row -> fail(row, e.getMostSpecificCause().getMessage()));
+            }
+            batch.clear();
+            batchRows.clear();
+            batchNames.clear();
+        }
+
+        private int upsert() {
+            List<BeerDTO> beerDTOs = new ArrayList<>(batch);
+            try {
+                return optimisticRetryPolicy.execute("upsertBatch", () -> beerService.upsertBatch(beerDTOs));
+            } catch (DataIntegrityViolationException e) {
+                return optimisticRetryPolicy.execute("upsertBatch", () -> beerService.upsertBatch(beerDTOs));
+            }
+        }
+
+        void reject(long row, String message) {
+            rows++;
+            fail(row, message);
+        }
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(BeerImportErrorDTO.builder()
+                        .row(row)
+                        .message(message)
+                        .build());
+            }
+        }
+
+        BeerImportReportDTO report() {
+            return BeerImportReportDTO.builder()
+                    .rows(rows)
+                    .created(created)
+                    .updated(updated)
+                    .failed(failed)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        int index = columns.get(column);
+        if (index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    private static Integer integerField(List<String> record, Map<String, Integer> columns, String column) {
+        String value = field(record, columns, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("%s %s is not a number", column, value));
+        }
+    }
+
+    private static BeerType typeField(List<String> record, Map<String, Integer> columns) {
+        String value = field(record, columns, "type");
+        if (value == null) {
+            return null;
+        }
+        try {
+            return BeerType.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("type %s is not a known beer type", value));
+        }
+    }
+}
@@ -1,72 +1,692 @@
 package one.digitalinnovation.beerstock.service;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.cache.BeerNameFilter;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupResultDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.BeerSearchDTO;
+import one.digitalinnovation.beerstock.dto.BeerSearchResultDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerSortField;
+import one.digitalinnovation.beerstock.enums.StockAdjustmentStatus;
+import one.digitalinnovation.beerstock.event.BeerStockChangedEvent;
+import one.digitalinnovation.beerstock.event.ReservationExpiredEvent;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.exception.InvalidSearchCursorException;
+import one.digitalinnovation.beerstock.exception.ReservationNotFoundException;
 import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.metrics.BeerMetrics;
+import one.digitalinnovation.beerstock.repository.BeerJdbcRepository;
 import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerSearchCursor;
+import one.digitalinnovation.beerstock.reservation.ReservationStore;
+import one.digitalinnovation.beerstock.stock.StockTable;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static one.digitalinnovation.beerstock.metrics.BeerMetrics.CACHE;
+import static one.digitalinnovation.beerstock.metrics.BeerMetrics.FILTER;
+import static one.digitalinnovation.beerstock.metrics.BeerMetrics.MAPPING;
+import static one.digitalinnovation.beerstock.metrics.BeerMetrics.REPOSITORY;
+import static one.digitalinnovation.beerstock.metrics.BeerMetrics.STOCK;
+import static one.digitalinnovation.beerstock.metrics.BeerMetrics.VALIDATION;
 
 @Service
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_SEARCH_SIZE = 50;
+    private static final int INSERT_BATCH_SIZE = 100;
+    private static final int MAX_IN_CLAUSE_SIZE = 1000;
+
     private final BeerRepository beerRepository;
+    private final BeerJdbcRepository beerJdbcRepository;
+    private final BeerCache beerCache;
+    private final BeerNameFilter beerNameFilter;
+    private final StockTable stockTable;
+    private final IncrementCoalescer incrementCoalescer;
+    private final ReservationStore reservationStore;
+    private final OptimisticRetryPolicy optimisticRetryPolicy;
+    private final EntityManager entityManager;
+    private final BeerMetrics beerMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
     private final BeerMapper beerMapper = BeerMapper.INSTANCE;
 
     public BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
-        verifyIfIsAlreadyRegistered(beerDTO.getName());
-        Beer beer = beerMapper.toModel(beerDTO);
-        Beer savedBeer = beerRepository.save(beer);
-        return beerMapper.toDTO(savedBeer);
+        Timer.Sample mapping = beerMetrics.start();
+        Beer beer = toNewModel(beerDTO);
+        beerMetrics.stop(mapping, "createBeer", MAPPING);
+
+        Timer.Sample repository = beerMetrics.start();
+        Beer savedBeer;
+        try {
+            savedBeer = beerRepository.saveAndFlush(beer);
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueNameViolation(e)) {
+                throw beerMetrics.counted(new BeerAlreadyRegisteredException(beerDTO.getName()));
+            }
+            throw e;
+        } finally {
+            beerMetrics.stop(repository, "createBeer", REPOSITORY);
+        }
+
+        mapping = beerMetrics.start();
+        BeerDTO savedBeerDTO = beerMapper.toDTO(savedBeer);
+        beerMetrics.stop(mapping, "createBeer", MAPPING);
+        beerNameFilter.add(savedBeerDTO.getName());
+        stockTable.put(savedBeerDTO);
+        eventPublisher.publishEvent(BeerStockChangedEvent.created(savedBeerDTO));
+        return savedBeerDTO;
+    }
+
+    @Transactional(rollbackFor = BeerAlreadyRegisteredException.class)
+    public List<BeerDTO> createBeers(List<BeerDTO> beerDTOs) throws BeerAlreadyRegisteredException {
+        Timer.Sample validation = beerMetrics.start();
+        try {
+            verifyIfAnyIsAlreadyRegistered(beerDTOs);
+        } finally {
+            beerMetrics.stop(validation, "createBeers", VALIDATION);
+        }
+
+        Timer.Sample repository = beerMetrics.start();
+        List<BeerDTO> savedBeerDTOs = new ArrayList<>(beerDTOs.size());
+        try {
+            for (int from = 0; from < beerDTOs.size(); from += INSERT_BATCH_SIZE) {
+                List<BeerDTO> batch = beerDTOs.subList(from, Math.min(from + INSERT_BATCH_SIZE, beerDTOs.size()));
+                List<Beer> beers = batch.stream()
+                        .map(this::toNewModel)
+                        .collect(Collectors.toList());
+                try {
+                    // Flushed through the repository so that a constraint violation is translated like in createBeer
+                    beerRepository.saveAll(beers);
+                    beerRepository.flush();
+                } catch (DataIntegrityViolationException e) {
+                    // A concurrent insert took one of the names after the check; the flush does not say which one
+                    if (isUniqueNameViolation(e)) {
+                        throw beerMetrics.counted(new BeerAlreadyRegisteredException(batch.stream()
+                                .map(BeerDTO::getName)
+                                .collect(Collectors.joining(", "))));
+                    }
+                    throw e;
+                }
+                beers.stream()
+                        .map(beerMapper::toDTO)
+                        .forEach(savedBeerDTOs::add);
+                entityManager.clear();
+            }
+        } finally {
+            beerMetrics.stop(repository, "createBeers", REPOSITORY);
+        }
+        savedBeerDTOs.forEach(savedBeerDTO -> {
+            beerNameFilter.add(savedBeerDTO.getName());
+            stockTable.put(savedBeerDTO);
+            eventPublisher.publishEvent(BeerStockChangedEvent.created(savedBeerDTO));
+        });
+        return savedBeerDTOs;
+    }
+
+    @Transactional
+    public int upsertBatch(List<BeerDTO> beerDTOs) {
+        Timer.Sample repository = beerMetrics.start();
+        Map<String, Beer> existingBeers = findAllByName(beerDTOs);
+        List<BeerDTO> previousBeerDTOs = new ArrayList<>(beerDTOs.size());
+        List<Beer> beers = new ArrayList<>(beerDTOs.size());
+        List<Beer> newBeers = new ArrayList<>();
+        for (BeerDTO beerDTO : beerDTOs) {
+            Beer beer = existingBeers.get(beerDTO.getName());
+            if (beer == null) {
+                beer = toNewModel(beerDTO);
+                newBeers.add(beer);
+                previousBeerDTOs.add(null);
+            } else {
+                previousBeerDTOs.add(stockTable.overlay(beerMapper.toDTO(beer)));
+                beer.setBrand(beerDTO.getBrand());
+                beer.setMax(beerDTO.getMax());
+                beer.setQuantity(beerDTO.getQuantity());
+                beer.setType(beerDTO.getType());
+            }
+            beers.add(beer);
+        }
+        beerRepository.saveAll(newBeers);
+        beerRepository.flush();
+        List<BeerDTO> savedBeerDTOs = beers.stream()
+                .map(beerMapper::toDTO)
+                .collect(Collectors.toList());
+        entityManager.clear();
+        beerMetrics.stop(repository, "upsertBatch", REPOSITORY);
+
+        for (int i = 0; i < savedBeerDTOs.size(); i++) {
+            BeerDTO savedBeerDTO = savedBeerDTOs.get(i);
+            BeerDTO previousBeerDTO = previousBeerDTOs.get(i);
+            beerNameFilter.add(savedBeerDTO.getName());
+            beerCache.evict(savedBeerDTO.getName());
+            stockTable.put(savedBeerDTO);
+            eventPublisher.publishEvent(previousBeerDTO == null
+                    ? BeerStockChangedEvent.created(savedBeerDTO)
+                    : BeerStockChangedEvent.updated(previousBeerDTO, savedBeerDTO));
+        }
+        return newBeers.size();
     }
 
     public BeerDTO findByName(String name) throws BeerNotFoundException {
-        Beer foundBeer = beerRepository.findByName(name)
-                .orElseThrow(() -> new BeerNotFoundException(name));
-        return beerMapper.toDTO(foundBeer);
+        Timer.Sample filter = beerMetrics.start();
+        boolean mightExist = beerNameFilter.mightContain(name);
+        beerMetrics.stop(filter, "findByName", FILTER);
+        if (!mightExist) {
+            throw beerMetrics.counted(new BeerNotFoundException(name));
+        }
+
+        Timer.Sample cache = beerMetrics.start();
+        Optional<BeerDTO> cachedBeerDTO = beerCache.get(name);
+        beerMetrics.stop(cache, "findByName", CACHE);
+        if (cachedBeerDTO.isPresent()) {
+            return stockTable.overlay(cachedBeerDTO.get());
+        }
+
+        long stamp = beerCache.stamp(name);
+        Timer.Sample repository = beerMetrics.start();
+        Optional<BeerDTO> foundBeerDTO = beerRepository.findDTOByName(name);
+        beerMetrics.stop(repository, "findByName", REPOSITORY);
+        if (foundBeerDTO.isEmpty()) {
+            throw beerMetrics.counted(new BeerNotFoundException(name));
+        }
+
+        beerCache.fill(foundBeerDTO.get(), stamp);
+        return stockTable.overlay(foundBeerDTO.get());
+    }
+
+    @Transactional(readOnly = true)
+    public BeerLookupResultDTO lookup(List<String> names, List<Long> ids) {
+        Map<Long, BeerDTO> foundBeers = new LinkedHashMap<>();
+        List<String> notFoundNames = new ArrayList<>();
+        List<String> uncachedNames = new ArrayList<>();
+        Map<String, Long> stamps = new HashMap<>();
+
+        Timer.Sample cache = beerMetrics.start();
+        for (String name : new LinkedHashSet<>(names)) {
+            if (!beerNameFilter.mightContain(name)) {
+                notFoundNames.add(name);
+                continue;
+            }
+            Optional<BeerDTO> cachedBeerDTO = beerCache.get(name);
+            if (cachedBeerDTO.isPresent()) {
+                foundBeers.putIfAbsent(cachedBeerDTO.get().getId(), cachedBeerDTO.get());
+            } else {
+                uncachedNames.add(name);
+                stamps.put(name, beerCache.stamp(name));
+            }
+        }
+        beerMetrics.stop(cache, "lookup", CACHE);
+
+        Timer.Sample repository = beerMetrics.start();
+        Map<String, BeerDTO> beersByName = new HashMap<>(uncachedNames.size());
+        for (int from = 0; from < uncachedNames.size(); from += MAX_IN_CLAUSE_SIZE) {
+            beerRepository.findDTOsByNameIn(uncachedNames.subList(from, Math.min(from + MAX_IN_CLAUSE_SIZE, uncachedNames.size())))
+                    .forEach(beerDTO -> beersByName.put(beerDTO.getName(), beerDTO));
+        }
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, BeerDTO> beersById = new HashMap<>(distinctIds.size());
+        for (int from = 0; from < distinctIds.size(); from += MAX_IN_CLAUSE_SIZE) {
+            beerRepository.findDTOsByIdIn(distinctIds.subList(from, Math.min(from + MAX_IN_CLAUSE_SIZE, distinctIds.size())))
+                    .forEach(beerDTO -> beersById.put(beerDTO.getId(), beerDTO));
+        }
+        beerMetrics.stop(repository, "lookup", REPOSITORY);
+
+        for (String name : uncachedNames) {
+            BeerDTO beerDTO = beersByName.get(name);
+            if (beerDTO == null) {
+                notFoundNames.add(name);
+            } else {
+                beerCache.fill(beerDTO, stamps.get(name));
+                foundBeers.putIfAbsent(beerDTO.getId(), beerDTO);
+            }
+        }
+        List<Long> notFoundIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            BeerDTO beerDTO = beersById.get(id);
+            if (beerDTO == null) {
+                notFoundIds.add(id);
+            } else {
+                foundBeers.putIfAbsent(id, beerDTO);
+            }
+        }
+        return BeerLookupResultDTO.builder()
+                .beers(foundBeers.values().stream()
+                        .map(stockTable::overlay)
+                        .collect(Collectors.toList()))
+                .notFoundNames(notFoundNames)
+                .notFoundIds(notFoundIds)
+                .build();
     }
 
     public List<BeerDTO> listAll() {
-        return beerRepository.findAll()
-                .stream()
+        Timer.Sample repository = beerMetrics.start();
+        List<BeerDTO> beerDTOs = beerRepository.findAllDTOs();
+        beerMetrics.stop(repository, "listAll", REPOSITORY);
+        if (stockTable.isEnabled()) {
+            beerDTOs.replaceAll(stockTable::overlay);
+        }
+        return beerDTOs;
+    }
+
+    public BeerPageDTO listPage(Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Timer.Sample repository = beerMetrics.start();
+        List<BeerDTO> beers = beerRepository.findDTOsAfter(afterId == null ? 0L : afterId, PageRequest.of(0, pageSize));
+        beerMetrics.stop(repository, "listPage", REPOSITORY);
+        if (stockTable.isEnabled()) {
+            beers.replaceAll(stockTable::overlay);
+        }
+        Long nextCursor = beers.size() < pageSize ? null : beers.get(beers.size() - 1).getId();
+        return BeerPageDTO.builder()
+                .beers(beers)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public BeerSearchResultDTO search(BeerSearchDTO criteria) throws InvalidSearchCursorException {
+        BeerSortField sort = criteria.getSort() == null ? BeerSortField.ID : criteria.getSort();
+        Sort.Direction direction = criteria.getDirection() == null ? Sort.Direction.ASC : criteria.getDirection();
+        int pageSize = criteria.getSize() == null ? DEFAULT_SEARCH_SIZE : Math.max(1, Math.min(criteria.getSize(), MAX_PAGE_SIZE));
+        BeerSearchCursor after = criteria.getCursor() == null ? null : BeerSearchCursor.decode(criteria.getCursor(), sort, direction);
+
+        Timer.Sample repository = beerMetrics.start();
+        List<Beer> found = beerRepository.search(criteria, sort, direction, after, pageSize + 1);
+        beerMetrics.stop(repository, "search", REPOSITORY);
+
+        Timer.Sample mapping = beerMetrics.start();
+        List<Beer> page = found.size() > pageSize ? found.subList(0, pageSize) : found;
+        List<BeerDTO> beers = page.stream()
                 .map(beerMapper::toDTO)
+                .map(stockTable::overlay)
                 .collect(Collectors.toList());
+        beerMetrics.stop(mapping, "search", MAPPING);
+        String nextCursor = found.size() > pageSize
+                ? BeerSearchCursor.after(page.get(page.size() - 1), sort, direction).encode()
+                : null;
+        return BeerSearchResultDTO.builder()
+                .beers(beers)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<BeerDTO> consumer) {
+        try (Stream<Beer> beers = beerRepository.streamAll()) {
+            beers.forEach(beer -> {
+                consumer.accept(stockTable.overlay(beerMapper.toDTO(beer)));
+                entityManager.detach(beer);
+            });
+        }
     }
 
     public void deleteById(Long id) throws BeerNotFoundException {
-        verifyIfExists(id);
-        beerRepository.deleteById(id);
+        Timer.Sample validation = beerMetrics.start();
+        Beer beerToDelete;
+        try {
+            beerToDelete = verifyIfExists(id);
+        } finally {
+            beerMetrics.stop(validation, "deleteById", VALIDATION);
+        }
+
+        Timer.Sample repository = beerMetrics.start();
+        try {
+            optimisticRetryPolicy.run("deleteById", () -> beerRepository.deleteById(id));
+        } finally {
+            beerMetrics.stop(repository, "deleteById", REPOSITORY);
+        }
+        BeerDTO deletedBeerDTO = stockTable.overlay(beerMapper.toDTO(beerToDelete));
+        stockTable.remove(id);
+        beerNameFilter.remove(beerToDelete.getName());
+        beerCache.evict(beerToDelete.getName());
+        eventPublisher.publishEvent(BeerStockChangedEvent.deleted(deletedBeerDTO));
+    }
+
+    private Beer toNewModel(BeerDTO beerDTO) {
+        Beer beer = beerMapper.toModel(beerDTO);
+        beer.setId(null);
+        return beer;
+    }
+
+    private boolean isUniqueNameViolation(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+        String constraintName = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return constraintName != null && constraintName.toLowerCase().contains(Beer.UNIQUE_NAME_CONSTRAINT);
     }
 
-    private void verifyIfIsAlreadyRegistered(String name) throws BeerAlreadyRegisteredException {
-        Optional<Beer> optSavedBeer = beerRepository.findByName(name);
-        if (optSavedBeer.isPresent()) {
-            throw new BeerAlreadyRegisteredException(name);
+    private void verifyIfAnyIsAlreadyRegistered(List<BeerDTO> beerDTOs) throws BeerAlreadyRegisteredException {
+        Set<String> names = new HashSet<>(beerDTOs.size());
+        for (BeerDTO beerDTO : beerDTOs) {
+            if (!names.add(beerDTO.getName())) {
+                throw beerMetrics.counted(new BeerAlreadyRegisteredException(beerDTO.getName()));
+            }
+        }
+        for (int from = 0; from < beerDTOs.size(); from += MAX_IN_CLAUSE_SIZE) {
+            List<String> chunk = beerDTOs.subList(from, Math.min(from + MAX_IN_CLAUSE_SIZE, beerDTOs.size()))
+                    .stream()
+                    .map(BeerDTO::getName)
+                    .filter(beerNameFilter::mightContain)
+                    .collect(Collectors.toList());
+            if (chunk.isEmpty()) {
+                continue;
+            }
+            Optional<Beer> optSavedBeer = beerRepository.findByNameIn(chunk).stream().findFirst();
+            if (optSavedBeer.isPresent()) {
+                throw beerMetrics.counted(new BeerAlreadyRegisteredException(optSavedBeer.get().getName()));
+            }
         }
     }
 
+    private Map<String, Beer> findAllByName(List<BeerDTO> beerDTOs) {
+        Map<String, Beer> beersByName = new HashMap<>(beerDTOs.size());
+        for (int from = 0; from < beerDTOs.size(); from += MAX_IN_CLAUSE_SIZE) {
+            List<String> chunk = beerDTOs.subList(from, Math.min(from + MAX_IN_CLAUSE_SIZE, beerDTOs.size()))
+                    .stream()
+                    .map(BeerDTO::getName)
+                    .filter(beerNameFilter::mightContain)
+                    .collect(Collectors.toList());
+            if (!chunk.isEmpty()) {
+                beerRepository.findByNameIn(chunk).forEach(beer -> beersByName.put(beer.getName(), beer));
+            }
+        }
+        return beersByName;
+    }
+
     private Beer verifyIfExists(Long id) throws BeerNotFoundException {
         return beerRepository.findById(id)
-                .orElseThrow(() -> new BeerNotFoundException(id));
+                .orElseThrow(() -> beerMetrics.counted(new BeerNotFoundException(id)));
     }
 
     public BeerDTO increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
-        Beer beerToIncrementStock = verifyIfExists(id);
-        int quantityAfterIncrement = quantityToIncrement + beerToIncrementStock.getQuantity();
-        if (quantityAfterIncrement <= beerToIncrementStock.getMax()) {
-            beerToIncrementStock.setQuantity(beerToIncrementStock.getQuantity() + quantityToIncrement);
-            Beer incrementedBeerStock = beerRepository.save(beerToIncrementStock);
-            return beerMapper.toDTO(incrementedBeerStock);
-        }
-        throw new BeerStockExceededException(id, quantityToIncrement);
+        AtomicInteger inFlightIncrements = beerMetrics.inFlightIncrements(id);
+        inFlightIncrements.incrementAndGet();
+        try {
+            Timer.Sample stock = beerMetrics.start();
+            BeerDTO stockTableBeerDTO;
+            try {
+                stockTableBeerDTO = stockTable.increment(id, quantityToIncrement);
+            } finally {
+                beerMetrics.stop(stock, "increment", STOCK);
+            }
+            if (stockTableBeerDTO != null) {
+                eventPublisher.publishEvent(BeerStockChangedEvent.updated(stockTableBeerDTO, quantityToIncrement));
+                return stockTableBeerDTO;
+            }
+
+            if (incrementCoalescer.isEnabled()) {
+                Timer.Sample coalesced = beerMetrics.start();
+                BeerDTO coalescedBeerDTO;
+                try {
+                    coalescedBeerDTO = incrementCoalescer.increment(id, quantityToIncrement);
+                } finally {
+                    beerMetrics.stop(coalesced, "increment", REPOSITORY);
+                }
+                beerCache.evict(coalescedBeerDTO.getName());
+                eventPublisher.publishEvent(BeerStockChangedEvent.updated(coalescedBeerDTO, quantityToIncrement));
+                return coalescedBeerDTO;
+            }
+
+            Timer.Sample repository = beerMetrics.start();
+            StockUpdate update;
+            try {
+                update = transactionTemplate.execute(status -> new StockUpdate(
+                        beerRepository.incrementQuantity(id, quantityToIncrement), beerRepository.findById(id)));
+            } finally {
+                beerMetrics.stop(repository, "increment", REPOSITORY);
+            }
+            Beer beer = update.beer.orElseThrow(() -> beerMetrics.counted(new BeerNotFoundException(id)));
+
+            Timer.Sample validation = beerMetrics.start();
+            try {
+                if (update.updatedRows == 0) {
+                    throw beerMetrics.counted(new BeerStockExceededException(id, quantityToIncrement));
+                }
+            } finally {
+                beerMetrics.stop(validation, "increment", VALIDATION);
+            }
+
+            Timer.Sample mapping = beerMetrics.start();
+            BeerDTO incrementedBeerDTO = beerMapper.toDTO(beer);
+            beerMetrics.stop(mapping, "increment", MAPPING);
+            beerCache.evict(incrementedBeerDTO.getName());
+            eventPublisher.publishEvent(BeerStockChangedEvent.updated(incrementedBeerDTO, quantityToIncrement));
+            return incrementedBeerDTO;
+        } finally {
+            inFlightIncrements.decrementAndGet();
+        }
+    }
+
+    public BeerDTO decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockInsufficientException {
+        Timer.Sample stock = beerMetrics.start();
+        BeerDTO stockTableBeerDTO;
+        try {
+            stockTableBeerDTO = stockTable.decrement(id, quantityToDecrement);
+        } finally {
+            beerMetrics.stop(stock, "decrement", STOCK);
+        }
+        if (stockTableBeerDTO != null) {
+            eventPublisher.publishEvent(BeerStockChangedEvent.updated(stockTableBeerDTO, -quantityToDecrement));
+            return stockTableBeerDTO;
+        }
+
+        Timer.Sample repository = beerMetrics.start();
+        StockUpdate update;
+        try {
+            update = transactionTemplate.execute(status -> new StockUpdate(
+                    beerRepository.decrementQuantity(id, quantityToDecrement), beerRepository.findById(id)));
+        } finally {
+            beerMetrics.stop(repository, "decrement", REPOSITORY);
+        }
+        Beer beer = update.beer.orElseThrow(() -> beerMetrics.counted(new BeerNotFoundException(id)));
+
+        Timer.Sample validation = beerMetrics.start();
+        try {
+            if (update.updatedRows == 0) {
+                throw beerMetrics.counted(new BeerStockInsufficientException(id, quantityToDecrement));
+            }
+        } finally {
+            beerMetrics.stop(validation, "decrement", VALIDATION);
+        }
+
+        Timer.Sample mapping = beerMetrics.start();
+        BeerDTO decrementedBeerDTO = beerMapper.toDTO(beer);
+        beerMetrics.stop(mapping, "decrement", MAPPING);
+        beerCache.evict(decrementedBeerDTO.getName());
+        eventPublisher.publishEvent(BeerStockChangedEvent.updated(decrementedBeerDTO, -quantityToDecrement));
+        return decrementedBeerDTO;
+    }
+
+    @Transactional
+    public ReservationDTO reserve(Long id, int quantity, Integer ttlSeconds) throws BeerNotFoundException, BeerStockInsufficientException {
+        decrement(id, quantity);
+        // The stock table is not part of the transaction, so a reservation that fails to persist hands its units back
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        restoreStockTable(id, quantity);
+                    }
+                }
+            });
+            return reservationStore.create(id, quantity, ttlSeconds);
+        }
+        try {
+            return reservationStore.create(id, quantity, ttlSeconds);
+        } catch (RuntimeException e) {
+            restoreStockTable(id, quantity);
+            throw e;
+        }
+    }
+
+    @Transactional
+    public ReservationDTO commitReservation(String reservationId) throws ReservationNotFoundException {
+        return reservationStore.remove(reservationId)
+                .orElseThrow(() -> beerMetrics.counted(new ReservationNotFoundException(reservationId)));
+    }
+
+    @Transactional
+    public void releaseReservation(String reservationId) throws ReservationNotFoundException {
+        ReservationDTO reservationDTO = reservationStore.remove(reservationId)
+                .orElseThrow(() -> beerMetrics.counted(new ReservationNotFoundException(reservationId)));
+        restore(reservationDTO);
+    }
+
+    @EventListener
+    @Transactional
+    public void onReservationExpired(ReservationExpiredEvent event) {
+        if (reservationStore.removeExpired(event.getReservation().getId())) {
+            restore(event.getReservation());
+        }
+    }
+
+    private void restoreStockTable(Long id, int quantity) {
+        BeerDTO restoredBeerDTO = stockTable.restore(id, quantity);
+        if (restoredBeerDTO != null) {
+            eventPublisher.publishEvent(BeerStockChangedEvent.updated(restoredBeerDTO, quantity));
+        }
+    }
+
+    private void restore(ReservationDTO reservationDTO) {
+        BeerDTO restoredBeerDTO = stockTable.restore(reservationDTO.getBeerId(), reservationDTO.getQuantity());
+        if (restoredBeerDTO == null) {
+            Timer.Sample repository = beerMetrics.start();
+            int updatedRows = beerRepository.restoreQuantity(reservationDTO.getBeerId(), reservationDTO.getQuantity());
+            Optional<Beer> beer = updatedRows == 0 ? Optional.empty() : beerRepository.findById(reservationDTO.getBeerId());
+            beerMetrics.stop(repository, "restore", REPOSITORY);
+            if (beer.isEmpty()) {
+                return;
+            }
+            restoredBeerDTO = beerMapper.toDTO(beer.get());
+            beerCache.evict(restoredBeerDTO.getName());
+        }
+        eventPublisher.publishEvent(BeerStockChangedEvent.updated(restoredBeerDTO, reservationDTO.getQuantity()));
+    }
+
+    @Transactional
+    public List<StockAdjustmentResultDTO> incrementAll(List<StockAdjustmentDTO> adjustments) {
+        StockAdjustmentResultDTO[] results = new StockAdjustmentResultDTO[adjustments.size()];
+        List<Integer> repositoryIndexes = new ArrayList<>(adjustments.size());
+        Timer.Sample stock = beerMetrics.start();
+        for (int i = 0; i < adjustments.size(); i++) {
+            StockAdjustmentDTO adjustment = adjustments.get(i);
+            if (!stockTable.contains(adjustment.getId())) {
+                repositoryIndexes.add(i);
+                continue;
+            }
+            try {
+                BeerDTO beer = stockTable.increment(adjustment.getId(), adjustment.getQuantity());
+                if (beer == null) {
+                    repositoryIndexes.add(i);
+                } else {
+                    results[i] = adjustmentResult(adjustment, beer, StockAdjustmentStatus.UPDATED, null);
+                    eventPublisher.publishEvent(BeerStockChangedEvent.updated(beer, adjustment.getQuantity()));
+                }
+            } catch (BeerStockExceededException e) {
+                results[i] = adjustmentResult(adjustment, stockTable.get(adjustment.getId()), StockAdjustmentStatus.STOCK_EXCEEDED, e.getMessage());
+            }
+        }
+        beerMetrics.stop(stock, "incrementAll", STOCK);
+        if (!repositoryIndexes.isEmpty()) {
+            incrementAllInRepository(adjustments, repositoryIndexes, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void incrementAllInRepository(List<StockAdjustmentDTO> adjustments, List<Integer> indexes, StockAdjustmentResultDTO[] results) {
+        List<StockAdjustmentDTO> repositoryAdjustments = indexes.size() == adjustments.size()
+                ? adjustments
+                : indexes.stream().map(adjustments::get).collect(Collectors.toList());
+        Timer.Sample repository = beerMetrics.start();
+        int[] updatedRows = beerJdbcRepository.incrementQuantities(repositoryAdjustments);
+        List<Long> ids = repositoryAdjustments.stream()
+                .map(StockAdjustmentDTO::getId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, BeerDTO> beersById = beerRepository.findAllById(ids)
+                .stream()
+                .map(beerMapper::toDTO)
+                .collect(Collectors.toMap(BeerDTO::getId, Function.identity()));
+        beerMetrics.stop(repository, "incrementAll", REPOSITORY);
+        beersById.values().forEach(beerDTO -> beerCache.evict(beerDTO.getName()));
+
+        for (int i = 0; i < repositoryAdjustments.size(); i++) {
+            StockAdjustmentDTO adjustment = repositoryAdjustments.get(i);
+            BeerDTO beer = beersById.get(adjustment.getId());
+            StockAdjustmentResultDTO result;
+            if (beer == null) {
+                result = adjustmentResult(adjustment, null, StockAdjustmentStatus.NOT_FOUND,
+                        beerMetrics.counted(new BeerNotFoundException(adjustment.getId())).getMessage());
+            } else if (updatedRows[i] == 0) {
+                result = adjustmentResult(adjustment, beer, StockAdjustmentStatus.STOCK_EXCEEDED,
+                        beerMetrics.counted(new BeerStockExceededException(adjustment.getId(), adjustment.getQuantity())).getMessage());
+            } else {
+                result = adjustmentResult(adjustment, beer, StockAdjustmentStatus.UPDATED, null);
+                eventPublisher.publishEvent(BeerStockChangedEvent.updated(beer, adjustment.getQuantity()));
+            }
+            results[indexes.get(i)] = result;
+        }
+    }
+
+    private StockAdjustmentResultDTO adjustmentResult(StockAdjustmentDTO adjustment, BeerDTO beer, StockAdjustmentStatus status, String message) {
+        return StockAdjustmentResultDTO.builder()
+                .id(adjustment.getId())
+                .quantity(adjustment.getQuantity())
+                .status(status)
+                .message(message)
+                .beer(beer)
+                .build();
+    }
+
+    private static final class StockUpdate {
+
+        private final int updatedRows;
+        private final Optional<Beer> beer;
+
+        private StockUpdate(int updatedRows, Optional<Beer> beer) {
+            this.updatedRows = updatedRows;
+            this.beer = beer;
+        }
     }
 }
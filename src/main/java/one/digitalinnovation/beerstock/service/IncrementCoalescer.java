@@ -0,0 +1,177 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.metrics.BeerMetrics;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class IncrementCoalescer {
+
+    private final BeerRepository beerRepository;
+    private final BeerMetrics beerMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxDepth;
+    private final Map<Long, Batch> batches = new ConcurrentHashMap<>();
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    @Autowired
+    public IncrementCoalescer(BeerRepository beerRepository,
+                              BeerMetrics beerMetrics,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${beerstock.increments.coalescing.enabled:false}") boolean enabled,
+                              @Value("${beerstock.increments.coalescing.window:2ms}") Duration window,
+                              @Value("${beerstock.increments.coalescing.max-depth:64}") int maxDepth) {
+        this.beerRepository = beerRepository;
+        this.beerMetrics = beerMetrics;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxDepth = maxDepth;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Must be called outside a transaction: followers only wait on their future, and the leader alone opens the
+     * transaction that locks the row and writes the batch, so a batch never holds more than one pooled connection.
+     */
+    public BeerDTO increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
+        PendingIncrement pending = new PendingIncrement(quantityToIncrement);
+        Batch batch = batches.compute(id, (key, current) -> current != null && current.join(pending, maxDepth) ? current : new Batch(pending));
+        if (batch.leader != pending) {
+            return await(pending.result);
+        }
+
+        try {
+            batch.full.await(windowNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingIncrement> increments = batch.close();
+        batches.remove(id, batch);
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(id, increments));
+        } catch (RuntimeException e) {
+            increments.forEach(increment -> increment.outcome = e);
+        }
+        increments.forEach(this::complete);
+        return await(pending.result);
+    }
+
+    private void apply(Long id, List<PendingIncrement> increments) {
+        beerMetrics.recordIncrementBatch(increments.size());
+        Optional<Beer> foundBeer = beerRepository.findByIdForUpdate(id);
+        if (foundBeer.isEmpty()) {
+            increments.forEach(increment -> increment.outcome = beerMetrics.counted(new BeerNotFoundException(id)));
+            return;
+        }
+        Beer beer = foundBeer.get();
+        BeerDTO beerDTO = beerMapper.toDTO(beer);
+        int quantity = beer.getQuantity();
+        int acceptedQuantity = 0;
+        for (PendingIncrement increment : increments) {
+            if (quantity + increment.quantity > beer.getMax()) {
+                increment.outcome = beerMetrics.counted(new BeerStockExceededException(id, increment.quantity));
+            } else {
+                quantity += increment.quantity;
+                acceptedQuantity += increment.quantity;
+                increment.outcome = new BeerDTO(beerDTO.getId(), beerDTO.getName(), beerDTO.getBrand(), beerDTO.getMax(), quantity, beerDTO.getType());
+            }
+        }
+        if (acceptedQuantity > 0) {
+            beerRepository.incrementQuantity(id, acceptedQuantity);
+        }
+    }
+
+    private void complete(PendingIncrement increment) {
+        if (increment.outcome instanceof BeerDTO) {
+            increment.result.complete((BeerDTO) increment.outcome);
+        } else {
+            increment.result.completeExceptionally((Throwable) increment.outcome);
+        }
+    }
+
+    private static BeerDTO await(CompletableFuture<BeerDTO> result) throws BeerNotFoundException, BeerStockExceededException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced increment", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof BeerNotFoundException) {
+                throw (BeerNotFoundException) cause;
+            }
+            if (cause instanceof BeerStockExceededException) {
+                throw (BeerStockExceededException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static final class Batch {
+
+        private final PendingIncrement leader;
+        private final List<PendingIncrement> pending = new ArrayList<>();
+        private final CountDownLatch full = new CountDownLatch(1);
+        private boolean closed;
+
+        private Batch(PendingIncrement leader) {
+            this.leader = leader;
+            this.pending.add(leader);
+        }
+
+        private synchronized boolean join(PendingIncrement increment, int maxDepth) {
+            if (closed || pending.size() >= maxDepth) {
+                return false;
+            }
+            pending.add(increment);
+            if (pending.size() == maxDepth) {
+                full.countDown();
+            }
+            return true;
+        }
+
+        private synchronized List<PendingIncrement> close() {
+            closed = true;
+            return pending;
+        }
+    }
+
+    private static final class PendingIncrement {
+
+        private final int quantity;
+        private final CompletableFuture<BeerDTO> result = new CompletableFuture<>();
+        private Object outcome;
+
+        private PendingIncrement(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+}
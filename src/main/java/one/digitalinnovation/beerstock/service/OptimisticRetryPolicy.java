@@ -0,0 +1,62 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.metrics.BeerMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+@Component
+public class OptimisticRetryPolicy {
+
+    private final BeerMetrics beerMetrics;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    @Autowired
+    public OptimisticRetryPolicy(BeerMetrics beerMetrics,
+                                 @Value("${beerstock.optimistic.max-attempts:5}") int maxAttempts,
+                                 @Value("${beerstock.optimistic.initial-backoff:2ms}") Duration initialBackoff,
+                                 @Value("${beerstock.optimistic.max-backoff:100ms}") Duration maxBackoff) {
+        this.beerMetrics = beerMetrics;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    public <T> T execute(String operation, Supplier<T> attempt) {
+        for (int attempts = 1; ; attempts++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                beerMetrics.recordOptimisticConflict(operation);
+                if (attempts >= maxAttempts || Thread.currentThread().isInterrupted()) {
+                    beerMetrics.recordOptimisticExhausted(operation);
+                    throw e;
+                }
+                beerMetrics.recordOptimisticRetry(operation);
+                backOff(attempts);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable attempt) {
+        execute(operation, () -> {
+            attempt.run();
+            return null;
+        });
+    }
+
+    private void backOff(int attempts) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempts - 1, 30));
+        if (ceiling > 0) {
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        }
+    }
+}
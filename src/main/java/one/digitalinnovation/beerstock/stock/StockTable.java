@@ -0,0 +1,306 @@
+package one.digitalinnovation.beerstock.stock;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.metrics.BeerMetrics;
+import one.digitalinnovation.beerstock.repository.BeerJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+@Component
+public class StockTable {
+
+    private static final long EMPTY = 0L;
+    private static final long REMOVED = -1L;
+    private static final int MAX_FLUSH_BATCH_SIZE = 1000;
+    private static final int NOT_HELD = Integer.MIN_VALUE;
+    private static final int OUT_OF_BOUNDS = Integer.MIN_VALUE + 1;
+
+    private final boolean enabled;
+    private final BeerJdbcRepository beerJdbcRepository;
+    private final BeerMetrics beerMetrics;
+    private final int mask;
+    private final AtomicLongArray ids;
+    private final AtomicLongArray stocks;
+    private final AtomicReferenceArray<BeerDTO> beers;
+    private final AtomicIntegerArray pendingDeltas;
+    private final AtomicIntegerArray dirty;
+    private final Queue<Integer> dirtySlots = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService flushExecutor;
+
+    @Autowired
+    public StockTable(BeerJdbcRepository beerJdbcRepository,
+                      BeerMetrics beerMetrics,
+                      @Value("${beerstock.stock.in-memory.enabled:false}") boolean enabled,
+                      @Value("${beerstock.stock.in-memory.capacity:1048576}") int capacity,
+                      @Value("${beerstock.stock.in-memory.flush-interval:200ms}") Duration flushInterval) {
+        this.enabled = enabled;
+        this.beerJdbcRepository = beerJdbcRepository;
+        this.beerMetrics = beerMetrics;
+        int slots = enabled ? Integer.highestOneBit(Math.max(2, capacity) - 1) << 1 : 0;
+        this.mask = slots - 1;
+        this.ids = new AtomicLongArray(slots);
+        this.stocks = new AtomicLongArray(slots);
+        this.beers = new AtomicReferenceArray<>(slots);
+        this.pendingDeltas = new AtomicIntegerArray(slots);
+        this.dirty = new AtomicIntegerArray(slots);
+        if (enabled) {
+            this.flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "stock-table-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long flushMillis = flushInterval.toMillis();
+            flushExecutor.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.flushExecutor = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean contains(Long id) {
+        if (!enabled) {
+            return false;
+        }
+        int slot = find(id);
+        return slot >= 0 && beers.get(slot) != null;
+    }
+
+    public BeerDTO get(Long id) {
+        if (!enabled) {
+            return null;
+        }
+        int slot = find(id);
+        BeerDTO beerDTO = slot < 0 ? null : beers.get(slot);
+        return beerDTO == null ? null : overlay(beerDTO);
+    }
+
+    public synchronized void load(BeerDTO beerDTO) {
+        if (!enabled) {
+            return;
+        }
+        int slot = claim(beerDTO.getId());
+        if (slot >= 0 && beers.get(slot) == null && stocks.get(slot) != REMOVED) {
+            stocks.set(slot, pack(beerDTO.getQuantity(), beerDTO.getMax()));
+            beers.set(slot, beerDTO);
+        }
+    }
+
+    public synchronized void put(BeerDTO beerDTO) {
+        if (!enabled) {
+            return;
+        }
+        int slot = claim(beerDTO.getId());
+        if (slot >= 0) {
+            pendingDeltas.set(slot, 0);
+            stocks.set(slot, pack(beerDTO.getQuantity(), beerDTO.getMax()));
+            beers.set(slot, beerDTO);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        if (!enabled) {
+            return;
+        }
+        int slot = find(id);
+        if (slot >= 0) {
+            stocks.set(slot, REMOVED);
+            beers.set(slot, null);
+        }
+    }
+
+    public BeerDTO increment(Long id, int quantityToIncrement) throws BeerStockExceededException {
+        int slot = heldSlot(id);
+        if (slot < 0) {
+            return null;
+        }
+        int quantity = add(slot, quantityToIncrement, true);
+        if (quantity == OUT_OF_BOUNDS) {
+            throw beerMetrics.counted(new BeerStockExceededException(id, quantityToIncrement));
+        }
+        return snapshot(slot, quantity);
+    }
+
+    public BeerDTO decrement(Long id, int quantityToDecrement) throws BeerStockInsufficientException {
+        int slot = heldSlot(id);
+        if (slot < 0) {
+            return null;
+        }
+        int quantity = add(slot, -quantityToDecrement, true);
+        if (quantity == OUT_OF_BOUNDS) {
+            throw beerMetrics.counted(new BeerStockInsufficientException(id, quantityToDecrement));
+        }
+        return snapshot(slot, quantity);
+    }
+
+    public BeerDTO restore(Long id, int quantityToRestore) {
+        int slot = heldSlot(id);
+        return slot < 0 ? null : snapshot(slot, add(slot, quantityToRestore, false));
+    }
+
+    public BeerDTO overlay(BeerDTO beerDTO) {
+        if (!enabled || beerDTO.getId() == null) {
+            return beerDTO;
+        }
+        int quantity = overlayQuantity(beerDTO.getId(), beerDTO.getQuantity());
+        return quantity == beerDTO.getQuantity() ? beerDTO : withQuantity(beerDTO, quantity);
+    }
+
+    public int overlayQuantity(long id, int quantity) {
+        if (!enabled) {
+            return quantity;
+        }
+        int slot = find(id);
+        if (slot < 0 || beers.get(slot) == null) {
+            return quantity;
+        }
+        long stock = stocks.get(slot);
+        return stock == REMOVED ? quantity : quantity(stock);
+    }
+
+    public int flush() {
+        int flushed = 0;
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        Integer slot;
+        while ((slot = dirtySlots.poll()) != null) {
+            dirty.set(slot, 0);
+            int delta = pendingDeltas.getAndSet(slot, 0);
+            if (delta != 0) {
+                deltas.merge(ids.get(slot), delta, Integer::sum);
+            }
+            if (deltas.size() == MAX_FLUSH_BATCH_SIZE) {
+                flushed += write(deltas);
+                deltas = new LinkedHashMap<>();
+            }
+        }
+        return flushed + write(deltas);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            flushExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            flush();
+        }
+    }
+
+    private int write(Map<Long, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        int written = deltas.size();
+        try {
+            beerJdbcRepository.addQuantities(deltas);
+        } catch (DataAccessException e) {
+            beerMetrics.counted(e);
+            deltas.forEach((id, delta) -> {
+                int slot = find(id);
+                pendingDeltas.addAndGet(slot, delta);
+                markDirty(slot);
+            });
+            written = 0;
+        }
+        return written;
+    }
+
+    private int heldSlot(Long id) {
+        if (!enabled) {
+            return -1;
+        }
+        int slot = find(id);
+        return slot < 0 || beers.get(slot) == null ? -1 : slot;
+    }
+
+    private int add(int slot, int delta, boolean bounded) {
+        while (true) {
+            long stock = stocks.get(slot);
+            if (stock == REMOVED) {
+                return NOT_HELD;
+            }
+            int quantity = quantity(stock) + delta;
+            if (bounded && (quantity < 0 || quantity > max(stock))) {
+                return OUT_OF_BOUNDS;
+            }
+            if (stocks.compareAndSet(slot, stock, pack(quantity, max(stock)))) {
+                pendingDeltas.addAndGet(slot, delta);
+                markDirty(slot);
+                return quantity;
+            }
+        }
+    }
+
+    private BeerDTO snapshot(int slot, int quantity) {
+        BeerDTO beerDTO = beers.get(slot);
+        return quantity == NOT_HELD || beerDTO == null ? null : withQuantity(beerDTO, quantity);
+    }
+
+    private void markDirty(int slot) {
+        if (dirty.compareAndSet(slot, 0, 1)) {
+            dirtySlots.offer(slot);
+        }
+    }
+
+    private int find(long id) {
+        for (int probe = 0, slot = hash(id); probe <= mask; probe++, slot = (slot + 1) & mask) {
+            long current = ids.get(slot);
+            if (current == id) {
+                return slot;
+            }
+            if (current == EMPTY) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private int claim(long id) {
+        for (int probe = 0, slot = hash(id); probe <= mask; probe++, slot = (slot + 1) & mask) {
+            long current = ids.get(slot);
+            if (current == id || current == EMPTY && (ids.compareAndSet(slot, EMPTY, id) || ids.get(slot) == id)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int hash(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static long pack(int quantity, int max) {
+        return ((long) max << 32) | (quantity & 0xFFFFFFFFL);
+    }
+
+    private static int quantity(long stock) {
+        return (int) stock;
+    }
+
+    private static int max(long stock) {
+        return (int) (stock >>> 32);
+    }
+
+    private static BeerDTO withQuantity(BeerDTO beerDTO, int quantity) {
+        return new BeerDTO(beerDTO.getId(), beerDTO.getName(), beerDTO.getBrand(), beerDTO.getMax(), quantity, beerDTO.getType());
+    }
+}
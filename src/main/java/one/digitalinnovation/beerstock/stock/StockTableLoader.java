@@ -0,0 +1,37 @@
+package one.digitalinnovation.beerstock.stock;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.stream.Stream;
+
+@Component
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class StockTableLoader {
+
+    private final BeerRepository beerRepository;
+    private final StockTable stockTable;
+    private final EntityManager entityManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        if (!stockTable.isEnabled()) {
+            return;
+        }
+        try (Stream<Beer> beers = beerRepository.streamAll()) {
+            beers.forEach(beer -> {
+                stockTable.load(BeerMapper.INSTANCE.toDTO(beer));
+                entityManager.detach(beer);
+            });
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package one.digitalinnovation.beerstock.summary;
+
+import one.digitalinnovation.beerstock.dto.BeerTypeSummaryDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.enums.StockEventType;
+import one.digitalinnovation.beerstock.event.BeerStockChangedEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps stock totals per beer type, seeded from the database once the application is ready and then moved by every
+ * {@link BeerStockChangedEvent}. Events are applied under the instance lock; a seed only installs a snapshot if no
+ * event was applied while its query ran, since such an event may or may not already be part of the snapshot.
+ */
+@Component
+public class StockSummary {
+
+    private static final int MAX_SEED_ATTEMPTS = 10;
+
+    private final BeerRepository beerRepository;
+    private final Map<BeerType, TypeTotals> totalsByType = new EnumMap<>(BeerType.class);
+    private long appliedEvents;
+
+    @Autowired
+    public StockSummary(BeerRepository beerRepository) {
+        this.beerRepository = beerRepository;
+        for (BeerType type : BeerType.values()) {
+            totalsByType.put(type, new TypeTotals());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seed() {
+        for (int attempt = 1; ; attempt++) {
+            long eventsBeforeQuery;
+            synchronized (this) {
+                eventsBeforeQuery = appliedEvents;
+            }
+            List<BeerTypeSummaryDTO> summaries = beerRepository.summarizeByType();
+            synchronized (this) {
+                // Past the last attempt the snapshot is installed anyway rather than holding up startup under steady writes
+                if (appliedEvents == eventsBeforeQuery || attempt == MAX_SEED_ATTEMPTS) {
+                    totalsByType.values().forEach(TypeTotals::reset);
+                    for (BeerTypeSummaryDTO summary : summaries) {
+                        TypeTotals totals = totalsByType.get(summary.getType());
+                        totals.beers.addAndGet(summary.getBeers());
+                        totals.quantity.addAndGet(summary.getQuantity());
+                        totals.capacity.addAndGet(summary.getCapacity());
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onStockChanged(BeerStockChangedEvent event) {
+        appliedEvents++;
+        TypeTotals totals = totalsByType.get(event.getType());
+        if (event.getEventType() == StockEventType.CREATED) {
+            totals.beers.incrementAndGet();
+            totals.quantity.addAndGet(event.getQuantity());
+            totals.capacity.addAndGet(event.getMax());
+        } else if (event.getEventType() == StockEventType.DELETED) {
+            totals.beers.decrementAndGet();
+            totals.quantity.addAndGet(-event.getQuantity());
+            totals.capacity.addAndGet(-event.getMax());
+        } else if (event.getPreviousType() == event.getType()) {
+            totals.quantity.addAndGet(event.getDelta());
+            totals.capacity.addAndGet(event.getMax() - event.getPreviousMax());
+        } else {
+            TypeTotals previousTotals = totalsByType.get(event.getPreviousType());
+            previousTotals.beers.decrementAndGet();
+            previousTotals.quantity.addAndGet(-(event.getQuantity() - event.getDelta()));
+            previousTotals.capacity.addAndGet(-event.getPreviousMax());
+            totals.beers.incrementAndGet();
+            totals.quantity.addAndGet(event.getQuantity());
+            totals.capacity.addAndGet(event.getMax());
+        }
+    }
+
+    public List<BeerTypeSummaryDTO> summarize() {
+        List<BeerTypeSummaryDTO> summaries = new ArrayList<>(totalsByType.size());
+        totalsByType.forEach((type, totals) -> summaries.add(new BeerTypeSummaryDTO(type, totals.beers.get(), totals.quantity.get(), totals.capacity.get())));
+        return summaries;
+    }
+
+    private static final class TypeTotals {
+
+        private final AtomicLong beers = new AtomicLong();
+        private final AtomicLong quantity = new AtomicLong();
+        private final AtomicLong capacity = new AtomicLong();
+
+        private void reset() {
+            beers.set(0);
+            quantity.set(0);
+            capacity.set(0);
+        }
+    }
+}
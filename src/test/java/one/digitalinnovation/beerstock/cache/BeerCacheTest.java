@@ -0,0 +1,133 @@
+package one.digitalinnovation.beerstock.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class BeerCacheTest {
+
+    private static final String BEER_NAME = "Brahma";
+    private static final int WRITES = 2000;
+    private static final int READERS = 2;
+
+    private BeerCache beerCache;
+
+    // @BeforeEach: Execute antes de cada método de teste.
+    @BeforeEach
+    void setUp() {
+        beerCache = new BeerCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), false);
+    }
+
+    //Quando a cerveja é removida depois de lida do banco, então a leitura antiga não é guardada no cache
+    @Test
+    void whenBeerIsEvictedAfterItWasReadThenTheOldReadIsNotCached() {
+
+        //Dado
+
+            //Uma leitura do banco iniciada antes da remoção
+            long stamp = beerCache.stamp(BEER_NAME);
+            BeerDTO readBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        //Quando
+
+            //A cerveja for removida e a leitura terminar depois
+            beerCache.evict(BEER_NAME);
+            beerCache.fill(readBeerDTO, stamp);
+
+        //Então
+
+            //Verifica se nada foi guardado no cache
+            assertThat(beerCache.get(BEER_NAME).isPresent(), is(false));
+    }
+
+    //Quando as leituras vão para a réplica, então elas não enchem o cache
+    @Test
+    void whenReadsGoToTheReplicaThenTheyDoNotFillTheCache() {
+
+        //Dado
+
+            //Um cache de uma aplicação com réplica habilitada
+            BeerCache replicaBeerCache = new BeerCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), true);
+
+        //Quando
+
+            //Uma leitura terminar sem nenhuma remoção no meio
+            replicaBeerCache.fill(BeerDTOBuilder.builder().build().toBeerDTO(), replicaBeerCache.stamp(BEER_NAME));
+
+        //Então
+
+            //Verifica se nada foi guardado no cache
+            assertThat(replicaBeerCache.get(BEER_NAME).isPresent(), is(false));
+    }
+
+    //Quando leitores e um escritor concorrem, então o cache nunca fica com uma quantidade anterior à última gravada
+    @Test
+    void whenReadersRaceAWriterThenTheCacheNeverKeepsAnOlderQuantity() throws Exception {
+
+        //Dado
+
+            //Um "banco" com a quantidade atual e leitores que enchem o cache a partir dele
+            AtomicReference<BeerDTO> database = new AtomicReference<>(beer(0));
+            AtomicBoolean writing = new AtomicBoolean(true);
+            CountDownLatch readersStarted = new CountDownLatch(READERS);
+            ExecutorService executor = Executors.newFixedThreadPool(READERS);
+            for (int i = 0; i < READERS; i++) {
+                executor.submit(() -> {
+                    readersStarted.countDown();
+                    while (writing.get()) {
+                        if (beerCache.get(BEER_NAME).isEmpty()) {
+                            long stamp = beerCache.stamp(BEER_NAME);
+                            BeerDTO readBeerDTO = database.get();
+                            Thread.yield();
+                            beerCache.fill(readBeerDTO, stamp);
+                        }
+                    }
+                });
+            }
+            readersStarted.await();
+
+        //Quando
+
+            //O escritor gravar novas quantidades, remover a cerveja do cache depois de cada gravação
+            //e conferir, antes da gravação seguinte, se o cache tem alguma quantidade anterior
+            int staleReads = 0;
+            for (int quantity = 1; quantity <= WRITES; quantity++) {
+                database.set(beer(quantity));
+                beerCache.evict(BEER_NAME);
+                Thread.yield();
+                int writtenQuantity = quantity;
+                if (beerCache.get(BEER_NAME).filter(cached -> cached.getQuantity() < writtenQuantity).isPresent()) {
+                    staleReads++;
+                }
+            }
+            writing.set(false);
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), is(true));
+
+        //Então
+
+            //Verifica se o cache nunca guardou uma quantidade anterior e se terminou vazio ou com a última quantidade
+            assertThat(staleReads, is(equalTo(0)));
+            Optional<BeerDTO> cachedBeerDTO = beerCache.get(BEER_NAME);
+            assertThat(cachedBeerDTO.map(BeerDTO::getQuantity).orElse(WRITES), is(equalTo(WRITES)));
+    }
+
+    private static BeerDTO beer(int quantity) {
+        return BeerDTOBuilder.builder().name(BEER_NAME).quantity(quantity).build().toBeerDTO();
+    }
+}
@@ -0,0 +1,94 @@
+package one.digitalinnovation.beerstock.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class BeerNameFilterTest {
+
+    private static final int EXPECTED_INSERTIONS = 10000;
+
+    private BeerNameFilter beerNameFilter;
+
+    // @BeforeEach: Execute antes de cada método de teste.
+    @BeforeEach
+    void setUp() {
+        beerNameFilter = new BeerNameFilter(EXPECTED_INSERTIONS, 0.01);
+    }
+
+    //Quando o filtro ainda não foi carregado, então todo nome pode existir
+    @Test
+    void whenFilterIsNotReadyThenEveryNameMightExist() {
+
+        //Então
+
+            //Verifica se um nome nunca adicionado pode existir
+            assertThat(beerNameFilter.mightContain("Brahma"), is(true));
+    }
+
+    //Quando nomes são adicionados, então todos eles podem existir
+    @Test
+    void whenNamesAreAddedThenAllOfThemMightExist() {
+
+        //Dado
+
+            //Adiciona os nomes e marca o filtro como carregado
+            IntStream.range(0, EXPECTED_INSERTIONS).forEach(i -> beerNameFilter.add("beer-" + i));
+            beerNameFilter.markReady();
+
+        //Então
+
+            //Verifica se nenhum nome adicionado é descartado (o filtro não tem falsos negativos)
+            IntStream.range(0, EXPECTED_INSERTIONS)
+                    .forEach(i -> assertThat(beerNameFilter.mightContain("beer-" + i), is(true)));
+    }
+
+    //Quando nomes não adicionados são consultados, então a taxa de falsos positivos fica perto da configurada
+    @Test
+    void whenMissingNamesAreCheckedThenFalsePositiveRateIsBounded() {
+
+        //Dado
+
+            //Adiciona os nomes e marca o filtro como carregado
+            IntStream.range(0, EXPECTED_INSERTIONS).forEach(i -> beerNameFilter.add("beer-" + i));
+            beerNameFilter.markReady();
+
+        //Quando
+
+            //Conta quantos nomes nunca adicionados são aceitos pelo filtro
+            long falsePositives = IntStream.range(0, EXPECTED_INSERTIONS)
+                    .filter(i -> beerNameFilter.mightContain("missing-" + i))
+                    .count();
+
+        //Então
+
+            //Verifica se a taxa de falsos positivos é menor que 3%
+            assertThat((double) falsePositives / EXPECTED_INSERTIONS, is(lessThan(0.03)));
+    }
+
+    //Quando um nome é removido, então ele deixa de existir
+    @Test
+    void whenNameIsRemovedThenItIsRejected() {
+
+        //Dado
+
+            //Adiciona o nome e marca o filtro como carregado
+            beerNameFilter.add("Brahma");
+            beerNameFilter.markReady();
+
+        //Quando
+
+            //Remove o nome
+            beerNameFilter.remove("Brahma");
+
+        //Então
+
+            //Verifica se o nome removido é descartado
+            assertThat(beerNameFilter.mightContain("Brahma"), is(false));
+    }
+}
@@ -2,10 +2,19 @@ package one.digitalinnovation.beerstock.controller;
 
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerImportReportDTO;
+import one.digitalinnovation.beerstock.dto.BeerTypeSummaryDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
 import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentBatchDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentDTO;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.service.BeerExportService;
+import one.digitalinnovation.beerstock.service.BeerImportService;
 import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.summary.StockSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,21 +22,29 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Collections;
 
 import static one.digitalinnovation.beerstock.utils.JsonConvertionUtils.asJsonString;
 import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.mock.http.server.reactive.MockServerHttpRequest.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -49,6 +66,15 @@ public class BeerControllerTest {
     @Mock
     private BeerService beerService;
 
+    @Mock
+    private BeerImportService beerImportService;
+
+    @Mock
+    private BeerExportService beerExportService;
+
+    @Mock
+    private StockSummary stockSummary;
+
     // InjectMocks: Cria uma intancia e injeta as dependências necessárias que estão anotadas com @Mock.
     @InjectMocks
     private BeerController beerController;
@@ -129,6 +155,36 @@ public class BeerControllerTest {
                     .andExpect(status().isBadRequest());
     }
 
+    //Quando o POST é chamado com um nome reservado por outro endpoint, então um erro é retornado
+    @Test
+    void whenPOSTIsCalledWithReservedNameThenAnErrorIsReturned() throws Exception {
+
+        //Dado
+
+            //Gera um BeerDTO
+            BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        //Então
+
+            //Verifica se cada nome usado por um caminho fixo de GET é recusado sem chegar ao serviço
+            for (String reservedName : Arrays.asList("stream", "search", "summary", "export", "events")) {
+                beerDTO.setName(reservedName);
+                mockMvc.perform(post(BEER_API_URL_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(beerDTO)))
+                        .andExpect(status().isBadRequest());
+            }
+            verify(beerService, never()).createBeer(any(BeerDTO.class));
+
+            //Verifica se um nome que apenas contém uma palavra reservada continua aceito
+            beerDTO.setName("Summary Ale");
+            when(beerService.createBeer(beerDTO)).thenReturn(beerDTO);
+            mockMvc.perform(post(BEER_API_URL_PATH)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(asJsonString(beerDTO)))
+                    .andExpect(status().isCreated());
+    }
+
     //Quando GET é chamado com nome válido, então o status OK é retornado
     @Test
     void whenGETIsCalledWithValidNameThenOkStatusIsReturned() throws Exception {
@@ -161,6 +217,45 @@ public class BeerControllerTest {
                     .andExpect(jsonPath("$.type", is(beerDTO.getType().toString())));
     }
 
+    //Quando GET é chamado com o ETag atual da cerveja, então o status Not Modified é retornado sem corpo
+    @Test
+    void whenGETIsCalledWithCurrentETagThenNotModifiedStatusIsReturned() throws Exception {
+
+        // Dado
+
+            //Gera um BeerDTO
+            BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // Quando
+
+            //beerDTO.getName() for encontrado ou não -> beerDTO
+            when(beerService.findByName(beerDTO.getName()))
+                    .thenReturn(beerDTO);
+
+        // Então
+
+            //perform: Executa o get e guarda o ETag retornado
+            String eTag = mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/" + beerDTO.getName()))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getHeader(HttpHeaders.ETAG);
+
+            //perform: Executa o get novamente com If-None-Match igual ao ETag
+            //andExpect: Espera-se que o get retorne o status Not Modified sem corpo
+            mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                    .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            //Uma mudança de estoque na cerveja lida troca o ETag e a próxima busca retorna o status OK com a nova quantidade
+            beerDTO.setQuantity(beerDTO.getQuantity() + 1);
+            mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/" + beerDTO.getName())
+                    .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.quantity", is(beerDTO.getQuantity())));
+    }
+
     // Quando GET é chamado sem nome registrado, então o status Not Found  é retornado
     @Test
     void whenGETIsCalledWithoutRegisteredNameThenNotFoundStatusIsReturned() throws Exception {
@@ -246,6 +341,85 @@ public class BeerControllerTest {
                     .andExpect(status().isOk());
     }
 
+    //Quando a lista GET paginada é chamada, então o status OK e o cursor da próxima página são retornados
+    @Test
+    void whenGETPageIsCalledThenOkStatusAndNextCursorAreReturned() throws Exception {
+
+        // Dado
+
+            //Gera um BeerDTO
+            BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+            //Gera uma página com o beerDTO
+            BeerPageDTO beerPageDTO = BeerPageDTO.builder()
+                    .beers(Collections.singletonList(beerDTO))
+                    .nextCursor(beerDTO.getId())
+                    .build();
+
+        // Quando
+
+            //beerService.listPage(null, 1) retornar uma página ou não -> beerPageDTO
+            when(beerService.listPage(null, 1))
+                    .thenReturn(beerPageDTO);
+
+        // Então
+
+            //perform: Executa o get /api/v1/beers?size=1
+            //andExpect: Espera-se que o get retorne o status OK
+            //andExpect: Espera-se que $.beers[0].name seja igual a beerDTO.getName()
+            //andExpect: Espera-se que $.nextCursor seja igual a beerDTO.getId()
+            mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH)
+                    .param("size", "1")
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.beers[0].name", is(beerDTO.getName())))
+                    .andExpect(jsonPath("$.nextCursor", is(beerDTO.getId().intValue())));
+    }
+
+    //Quando o GET do resumo é chamado, então o status OK e os totais por tipo são retornados
+    @Test
+    void whenGETSummaryIsCalledThenOkStatusAndTotalsByTypeAreReturned() throws Exception {
+
+        //Quando
+
+            //stockSummary.summarize() retornar o resumo do tipo LAGER
+            when(stockSummary.summarize())
+                    .thenReturn(Collections.singletonList(new BeerTypeSummaryDTO(BeerType.LAGER, 2L, 30L, 100L)));
+
+        //Então
+
+            //perform: Executa o get BEER_API_URL_PATH + "/summary"
+            //andExpect: Espera-se que o get retorne o status OK e os totais do tipo LAGER
+            mockMvc.perform(MockMvcRequestBuilders.get(BEER_API_URL_PATH + "/summary")
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].type", is(BeerType.LAGER.toString())))
+                    .andExpect(jsonPath("$[0].quantity", is(30)))
+                    .andExpect(jsonPath("$[0].fillRatio", is(0.3)));
+    }
+
+    //Quando POST /import é chamado com um CSV, então o status OK e o relatório da importação são retornados
+    @Test
+    void whenPOSTImportIsCalledWithCsvThenOkStatusAndReportAreReturned() throws Exception {
+
+        //Quando
+
+            //beerImportService.importCsv() retornar um relatório com uma linha criada
+            when(beerImportService.importCsv(any(InputStream.class)))
+                    .thenReturn(BeerImportReportDTO.builder().rows(1).created(1).errors(Collections.emptyList()).build());
+
+        //Então
+
+            //perform: Executa o post BEER_API_URL_PATH + "/import" com um corpo text/csv
+            //andExpect: Espera-se que o post retorne o status OK e o relatório
+            mockMvc.perform(post(BEER_API_URL_PATH + "/import")
+                    .contentType("text/csv")
+                    .content("name,brand,max,quantity,type\nBrahma,Ambev,50,10,LAGER\n"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.rows", is(1)))
+                    .andExpect(jsonPath("$.created", is(1)));
+    }
+
     //Quando DELETE é chamado com um ID válido, então o status NoContent é retornado
     @Test
     void whenDELETEIsCalledWithValidIdThenNoContentStatusIsReturned() throws Exception {
@@ -338,7 +512,82 @@ public class BeerControllerTest {
 
     }
 
-}
+    //Quando o PATCH é chamado para decrementar o estoque, então o status OK é retornado
+    @Test
+    void whenPATCHIsCalledToDecrementThenOKstatusIsReturned() throws Exception {
+
+        //Dado
+
+            //Gera um quantityDTO e gera o quantity = 5
+            QuantityDTO quantityDTO = QuantityDTO.builder()
+                    .quantity(5)
+                    .build();
+
+            //Gera um BeerDTO com a quantidade já decrementada
+            BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            beerDTO.setQuantity(beerDTO.getQuantity() - quantityDTO.getQuantity());
 
+        //Quando
+
+            //beerService.decrement(VALID_BEER_ID, quantityDTO.getQuantity()) retornar um BeerDTO ou não -> beerDTO
+            when(beerService.decrement(VALID_BEER_ID, quantityDTO.getQuantity()))
+                    .thenReturn(beerDTO);
+
+        //Então
+
+            //perform: Executa o patch BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL
+            //andExpect: Espera-se que o patch retorne o status OK e a quantidade decrementada
+            mockMvc.perform(MockMvcRequestBuilders.patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(asJsonString(quantityDTO))).andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name", is(beerDTO.getName())))
+                    .andExpect(jsonPath("$.quantity", is(beerDTO.getQuantity())));
+    }
+
+    //Quando o PATCH é chamado para decrementar uma quantidade negativa, então o status Bad Request é retornado
+    @Test
+    void whenPATCHIsCalledToDecrementANegativeQuantityThenBadRequestStatusIsReturned() throws Exception {
 
+        //Dado
 
+            //Gera um quantityDTO com quantity = -5, que somaria unidades sem respeitar o máximo
+            QuantityDTO quantityDTO = QuantityDTO.builder()
+                    .quantity(-5)
+                    .build();
+
+        //Então
+
+            //Verifica se o patch retorna o status Bad Request sem chamar o serviço
+            mockMvc.perform(MockMvcRequestBuilders.patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(asJsonString(quantityDTO))).andExpect(status().isBadRequest());
+            verify(beerService, times(0)).decrement(any(), any(Integer.class));
+    }
+
+    //Quando o PATCH em lote é chamado com ajustes zerados ou negativos, então o status Bad Request é retornado
+    @Test
+    void whenPATCHBatchIsCalledWithNonPositiveAdjustmentThenBadRequestStatusIsReturned() throws Exception {
+
+        for (int quantity : new int[]{0, -5}) {
+
+            //Dado
+
+                //Gera um lote com um ajuste válido e outro de quantidade zero ou negativa, que tiraria unidades do estoque
+                StockAdjustmentBatchDTO stockAdjustmentBatchDTO = StockAdjustmentBatchDTO.builder()
+                        .adjustments(Arrays.asList(
+                                StockAdjustmentDTO.builder().id(VALID_BEER_ID).quantity(10).build(),
+                                StockAdjustmentDTO.builder().id(INVALID_BEER_ID).quantity(quantity).build()))
+                        .build();
+
+            //Então
+
+                //Verifica se o patch retorna o status Bad Request
+                mockMvc.perform(MockMvcRequestBuilders.patch(BEER_API_URL_PATH + BEER_API_SUBPATH_INCREMENT_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(stockAdjustmentBatchDTO))).andExpect(status().isBadRequest());
+        }
+
+        //Verifica se o serviço nunca foi chamado
+        verify(beerService, times(0)).incrementAll(any());
+    }
+}
@@ -0,0 +1,65 @@
+package one.digitalinnovation.beerstock.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    private static final String SELECT_NODE_SQL = "SELECT name FROM node";
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing-primary");
+        DataSource replica = h2("routing-replica");
+        DataSource dataSource = new ReadWriteRoutingDataSource(primary, replica);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    //Quando a transação é somente leitura, então a consulta vai para a réplica, e as demais para a primária
+    @Test
+    void whenTransactionIsReadOnlyThenQueryGoesToReplicaAndOthersToPrimary() {
+
+        //Quando
+
+            //Consulta o nome do banco em uma transação somente leitura, em uma de escrita e fora de transação
+            String readOnly = readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject(SELECT_NODE_SQL, String.class));
+            String readWrite = readWriteTransaction.execute(status -> jdbcTemplate.queryForObject(SELECT_NODE_SQL, String.class));
+            String withoutTransaction = jdbcTemplate.queryForObject(SELECT_NODE_SQL, String.class);
+
+        //Então
+
+            //Verifica se somente a transação somente leitura foi atendida pela réplica
+            assertThat(readOnly, is(equalTo("routing-replica")));
+            assertThat(readWrite, is(equalTo("routing-primary")));
+            assertThat(withoutTransaction, is(equalTo("routing-primary")));
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(50))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
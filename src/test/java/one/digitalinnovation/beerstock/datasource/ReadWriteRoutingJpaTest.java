@@ -0,0 +1,98 @@
+package one.digitalinnovation.beerstock.datasource;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-jpa-primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "beerstock.datasource.replica.enabled=true",
+        "beerstock.datasource.replica.url=" + ReadWriteRoutingJpaTest.REPLICA_URL,
+        "beerstock.datasource.replica.username=sa"
+})
+public class ReadWriteRoutingJpaTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-jpa-replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    private static final String BEER_NAME = "Routed Lager";
+    private static final String REPLICA_ONLY_BEER_NAME = "Replica Lager";
+    private static final int PRIMARY_QUANTITY = 10;
+    private static final int REPLICA_QUANTITY = 42;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private BeerCache beerCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate replica;
+
+    // @BeforeEach: Execute antes de cada método de teste.
+    @BeforeEach
+    void setUp() {
+        // A réplica não recebe o schema do Hibernate: as linhas dela são gravadas à parte, para distinguir de onde veio cada leitura
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("CREATE TABLE IF NOT EXISTS beer (id BIGINT PRIMARY KEY, name VARCHAR(255), brand VARCHAR(255), "
+                + "max INT, quantity INT, type VARCHAR(255), version BIGINT)");
+        replica.update("DELETE FROM beer");
+    }
+
+    //Quando a réplica está habilitada, então findByName e listAll leem da réplica sem encher o cache, e as escritas ficam na primária
+    @Test
+    void whenReplicaIsEnabledThenFindByNameAndListAllReadTheReplicaWithoutFillingTheCache() throws Exception {
+
+        //Dado
+
+            //Uma cerveja gravada na primária e uma cópia dela na réplica com outra quantidade, além de uma cerveja só da réplica
+            BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).name(BEER_NAME).quantity(PRIMARY_QUANTITY).build().toBeerDTO());
+            replica.update("INSERT INTO beer VALUES (?, ?, 'Ambev', 50, ?, 'LAGER', 0)", beerDTO.getId(), BEER_NAME, REPLICA_QUANTITY);
+            replica.update("INSERT INTO beer VALUES (?, ?, 'Ambev', 50, 10, 'LAGER', 0)", beerDTO.getId() + 1000, REPLICA_ONLY_BEER_NAME);
+
+        //Quando
+
+            //A cerveja for buscada pelo nome e o catálogo for listado
+            BeerDTO foundBeerDTO = beerService.findByName(BEER_NAME);
+            List<String> listedNames = beerService.listAll().stream()
+                    .map(BeerDTO::getName)
+                    .collect(Collectors.toList());
+
+        //Então
+
+            //Verifica se as leituras passaram pelo JpaTransactionManager e foram atendidas pela réplica
+            assertThat(transactionManager, is(instanceOf(JpaTransactionManager.class)));
+            assertThat(foundBeerDTO.getQuantity(), is(equalTo(REPLICA_QUANTITY)));
+            assertThat(listedNames, containsInAnyOrder(BEER_NAME, REPLICA_ONLY_BEER_NAME));
+
+            //Verifica se a leitura da réplica não foi guardada no cache
+            assertThat(beerCache.get(BEER_NAME).isPresent(), is(false));
+
+            //Verifica se a leitura de escrita continua na primária
+            assertThat(beerRepository.findById(beerDTO.getId()).map(Beer::getQuantity).orElse(null), is(equalTo(PRIMARY_QUANTITY)));
+    }
+}
@@ -0,0 +1,197 @@
+package one.digitalinnovation.beerstock.event;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.controller.BeerController;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class StockEventBroadcasterTest {
+
+    private static final String BEER_API_EVENTS_URL_PATH = "/api/v1/beers/events";
+    private static final int BUFFER_SIZE = 2;
+
+    // Os drenos agendados ficam pendentes até o teste executá-los, simulando um assinante lento
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+
+    // Quando ligado, toda escrita na resposta falha, simulando um cliente que desconectou
+    private volatile boolean failWrites;
+
+    // Thread que tentou a escrita que falhou
+    private volatile String failedWriteThread;
+
+    private StockEventBroadcaster stockEventBroadcaster;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        stockEventBroadcaster = new StockEventBroadcaster(pendingDrains::add, BUFFER_SIZE, Duration.ofMinutes(30));
+        mockMvc = mockMvc(stockEventBroadcaster);
+    }
+
+    //Quando um assinante lento estoura o buffer, então os eventos mais antigos são descartados e um evento lag é enviado
+    @Test
+    void whenSlowSubscriberOverflowsItsBufferThenOldestEventsAreDroppedAndLagIsSent() throws Exception {
+
+        //Dado
+
+            //Um assinante conectado ao stream de eventos
+            MvcResult mvcResult = mockMvc.perform(get(BEER_API_EVENTS_URL_PATH))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+        //Quando
+
+            //Cinco eventos forem publicados antes de o assinante drenar o buffer de dois eventos
+            for (long id = 1; id <= 5; id++) {
+                stockEventBroadcaster.onStockChanged(BeerStockChangedEvent.updated(beerDTO(id), 1));
+            }
+
+            //O dreno agendado for executado
+            assertThat(pendingDrains, hasSize(1));
+            pendingDrains.remove(0).run();
+
+        //Então
+
+            //Verifica se o lag informa os três eventos descartados e se apenas os dois mais recentes foram enviados
+            String content = mvcResult.getResponse().getContentAsString();
+            assertThat(content, containsString("event:lag\ndata:3\n\n"));
+            assertThat(content, containsString("id:4\nevent:stock\n"));
+            assertThat(content, containsString("id:5\nevent:stock\n"));
+            assertThat(content, not(containsString("id:3\n")));
+            assertThat(content.indexOf("event:lag") < content.indexOf("id:4"), is(true));
+            assertThat(pendingDrains, hasSize(0));
+    }
+
+    //Quando o stream de um assinante é concluído ou expira, então o assinante é removido
+    @Test
+    void whenSubscriberStreamCompletesOrTimesOutThenSubscriberIsRemoved() throws Exception {
+
+        //Dado
+
+            //Dois assinantes conectados ao stream de eventos
+            MvcResult completed = mockMvc.perform(get(BEER_API_EVENTS_URL_PATH)).andReturn();
+            MvcResult timedOut = mockMvc.perform(get(BEER_API_EVENTS_URL_PATH)).andReturn();
+            assertThat(stockEventBroadcaster.subscriberCount(), is(equalTo(2)));
+
+        //Quando
+
+            //O primeiro stream for concluído e o segundo expirar
+            MockAsyncContext completedContext = (MockAsyncContext) completed.getRequest().getAsyncContext();
+            for (AsyncListener listener : completedContext.getListeners()) {
+                listener.onComplete(new AsyncEvent(completedContext));
+            }
+            MockAsyncContext timedOutContext = (MockAsyncContext) timedOut.getRequest().getAsyncContext();
+            for (AsyncListener listener : timedOutContext.getListeners()) {
+                listener.onTimeout(new AsyncEvent(timedOutContext));
+            }
+
+        //Então
+
+            //Verifica se não há assinantes e se um novo evento não agenda nenhum dreno
+            assertThat(stockEventBroadcaster.subscriberCount(), is(equalTo(0)));
+            stockEventBroadcaster.onStockChanged(BeerStockChangedEvent.updated(beerDTO(1L), 1));
+            assertThat(pendingDrains, hasSize(0));
+    }
+
+    //Quando o envio para um assinante falha, então o dreno roda no pool próprio de eventos e o assinante é removido
+    @Test
+    void whenSendingToSubscriberFailsThenTheDrainRunsOnItsOwnPoolAndTheSubscriberIsRemoved() throws Exception {
+
+        //Dado
+
+            //Um broadcaster com seu próprio pool de drenos e um assinante cuja conexão caiu
+            StockEventBroadcaster pooledBroadcaster = new StockEventBroadcaster(1, BUFFER_SIZE, Duration.ofMinutes(30));
+            try {
+                MockMvc pooledMockMvc = mockMvc(pooledBroadcaster);
+                pooledMockMvc.perform(get(BEER_API_EVENTS_URL_PATH))
+                        .andExpect(request().asyncStarted());
+                failWrites = true;
+
+        //Quando
+
+            //Um evento for publicado
+                pooledBroadcaster.onStockChanged(BeerStockChangedEvent.updated(beerDTO(1L), 1));
+
+        //Então
+
+            //Verifica se a escrita foi feita por uma thread do pool de eventos e se o assinante foi removido
+                long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+                while (pooledBroadcaster.subscriberCount() > 0 && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertThat(pooledBroadcaster.subscriberCount(), is(equalTo(0)));
+                assertThat(failedWriteThread, startsWith("stock-event-drain-"));
+            } finally {
+                pooledBroadcaster.close();
+            }
+    }
+
+    private MockMvc mockMvc(StockEventBroadcaster broadcaster) {
+        // Apenas o endpoint de eventos é exercitado, as demais dependências do controller não são usadas
+        return MockMvcBuilders.standaloneSetup(new BeerController(null, null, null, null, broadcaster, null))
+                .addFilter((request, response, chain) -> chain.doFilter(request, new FailingResponse((HttpServletResponse) response)))
+                .build();
+    }
+
+    private BeerDTO beerDTO(long id) {
+        return BeerDTOBuilder.builder().id(id).build().toBeerDTO();
+    }
+
+    private final class FailingResponse extends HttpServletResponseWrapper {
+
+        private FailingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            ServletOutputStream outputStream = super.getOutputStream();
+            return new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    if (failWrites) {
+                        failedWriteThread = Thread.currentThread().getName();
+                        throw new IOException("Broken pipe");
+                    }
+                    outputStream.write(b);
+                }
+            };
+        }
+    }
+}
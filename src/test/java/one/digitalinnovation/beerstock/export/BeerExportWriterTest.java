@@ -0,0 +1,90 @@
+package one.digitalinnovation.beerstock.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import one.digitalinnovation.beerstock.enums.ExportFormat;
+import one.digitalinnovation.beerstock.stock.StockTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerExportWriterTest {
+
+    // A tabela de estoque em memória fica desligada; a quantidade exportada é a do banco
+    private final StockTable stockTable = new StockTable(null, null, false, 0, Duration.ZERO);
+
+    @Mock
+    private ResultSet resultSet;
+
+    //Quando uma linha é exportada em CSV, então os campos com vírgula ou aspas são escapados
+    @Test
+    void whenRowIsExportedAsCsvThenFieldsWithCommasOrQuotesAreEscaped() throws IOException, SQLException {
+
+        //Dado
+
+            //Uma linha cujo nome tem vírgula e aspas
+            givenRow("Skol, \"Pilsen\"");
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //Quando
+
+            //A linha for exportada em CSV
+            try (BeerExportWriter writer = BeerExportWriter.of(ExportFormat.CSV, outputStream, new JsonFactory(), stockTable)) {
+                writer.processRow(resultSet);
+            }
+
+        //Então
+
+            //Verifica se o cabeçalho e a linha escapada foram escritos
+            assertThat(outputStream.toString(StandardCharsets.UTF_8), is(equalTo(
+                    "id,name,brand,max,quantity,type\r\n1,\"Skol, \"\"Pilsen\"\"\",Ambev,50,10,LAGER\r\n")));
+    }
+
+    //Quando uma linha é exportada em NDJSON, então cada cerveja ocupa uma linha
+    @Test
+    void whenRowIsExportedAsNdjsonThenEachBeerIsOneLine() throws IOException, SQLException {
+
+        //Dado
+
+            //Uma linha de cerveja
+            givenRow("Brahma");
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //Quando
+
+            //A linha for exportada duas vezes em NDJSON
+            BeerExportWriter writer = BeerExportWriter.of(ExportFormat.NDJSON, outputStream, new JsonFactory(), stockTable);
+            writer.processRow(resultSet);
+            writer.processRow(resultSet);
+            writer.close();
+
+        //Então
+
+            //Verifica se foram escritos dois objetos, um por linha
+            String line = "{\"id\":1,\"name\":\"Brahma\",\"brand\":\"Ambev\",\"max\":50,\"quantity\":10,\"type\":\"LAGER\"}\n";
+            assertThat(outputStream.toString(StandardCharsets.UTF_8), is(equalTo(line + line)));
+            assertThat(writer.getRows(), is(equalTo(2L)));
+    }
+
+    private void givenRow(String name) throws SQLException {
+        when(resultSet.getLong(1)).thenReturn(1L);
+        when(resultSet.getString(2)).thenReturn(name);
+        when(resultSet.getString(3)).thenReturn("Ambev");
+        when(resultSet.getInt(4)).thenReturn(50);
+        when(resultSet.getInt(5)).thenReturn(10);
+        when(resultSet.getString(6)).thenReturn("LAGER");
+    }
+}
@@ -0,0 +1,199 @@
+package one.digitalinnovation.beerstock.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.entity.IdempotencyRecord;
+import one.digitalinnovation.beerstock.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyFilterTest {
+
+    private static final String INCREMENT_URI = "/api/v1/beers/1/increment";
+    private static final String RESPONSE_BODY = "{\"id\":1,\"quantity\":20}";
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyFilter idempotencyFilter;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final FilterChain incrementChain = (request, response) -> {
+        executions.incrementAndGet();
+        StreamUtils.copyToByteArray(request.getInputStream());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(RESPONSE_BODY);
+    };
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyStore idempotencyStore = new IdempotencyStore(idempotencyRecordRepository, new SimpleMeterRegistry(), 100, Duration.ofHours(24));
+        idempotencyFilter = new IdempotencyFilter(idempotencyStore, DataSize.ofKilobytes(64), Duration.ofSeconds(1));
+    }
+
+    //Quando o mesmo incremento é repetido com a mesma Idempotency-Key, então a resposta original é devolvida sem executar de novo
+    @Test
+    void whenIncrementIsRetriedWithTheSameKeyThenOriginalResponseIsReplayedWithoutReexecuting() throws Exception {
+
+        //Dado
+
+            //Nenhum registro persistido para a chave
+            when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.empty());
+
+        //Quando
+
+            //O incremento for enviado duas vezes com a mesma chave
+            MockHttpServletResponse first = new MockHttpServletResponse();
+            idempotencyFilter.doFilter(incrementRequest("key-1", "{\"quantity\":10}"), first, incrementChain);
+            MockHttpServletResponse second = new MockHttpServletResponse();
+            idempotencyFilter.doFilter(incrementRequest("key-1", "{\"quantity\":10}"), second, incrementChain);
+
+        //Então
+
+            //Verifica se o incremento foi executado uma única vez, se a repetição recebeu o mesmo corpo e se a resposta foi persistida
+            assertThat(executions.get(), is(equalTo(1)));
+            assertThat(first.getContentAsString(), is(equalTo(RESPONSE_BODY)));
+            assertThat(first.getHeader(IdempotencyFilter.REPLAYED_HEADER), is(nullValue()));
+            assertThat(second.getStatus(), is(equalTo(HttpStatus.OK.value())));
+            assertThat(second.getContentAsString(), is(equalTo(RESPONSE_BODY)));
+            assertThat(second.getHeader(IdempotencyFilter.REPLAYED_HEADER), is(equalTo("true")));
+            ArgumentCaptor<IdempotencyRecord> record = ArgumentCaptor.forClass(IdempotencyRecord.class);
+            verify(idempotencyRecordRepository).save(record.capture());
+            assertThat(record.getValue().getKey(), is(equalTo("key-1")));
+    }
+
+    //Quando a Idempotency-Key é reutilizada com outro corpo, então a requisição é rejeitada com 422
+    @Test
+    void whenKeyIsReusedWithADifferentBodyThenUnprocessableEntityIsReturned() throws Exception {
+
+        //Dado
+
+            //Um incremento já executado com a chave
+            when(idempotencyRecordRepository.findById("key-2")).thenReturn(Optional.empty());
+            idempotencyFilter.doFilter(incrementRequest("key-2", "{\"quantity\":10}"), new MockHttpServletResponse(), incrementChain);
+
+        //Quando
+
+            //Outro incremento for enviado com a mesma chave
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            idempotencyFilter.doFilter(incrementRequest("key-2", "{\"quantity\":5}"), response, incrementChain);
+
+        //Então
+
+            //Verifica se a segunda requisição foi rejeitada sem executar
+            assertThat(response.getStatus(), is(equalTo(HttpStatus.UNPROCESSABLE_ENTITY.value())));
+            assertThat(executions.get(), is(equalTo(1)));
+    }
+
+    //Quando a consulta do registro persistido falha, então a chave é liberada e a repetição executa normalmente
+    @Test
+    void whenLoadingThePersistedRecordFailsThenTheKeyIsReleasedForTheRetry() throws Exception {
+
+        //Dado
+
+            //A primeira consulta ao banco falha e a seguinte não encontra registro
+            when(idempotencyRecordRepository.findById("key-4"))
+                    .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                    .thenReturn(Optional.empty());
+
+        //Quando
+
+            //O incremento for enviado, falhar, e for repetido com a mesma chave
+            assertThrows(DataAccessResourceFailureException.class, () ->
+                    idempotencyFilter.doFilter(incrementRequest("key-4", "{\"quantity\":10}"), new MockHttpServletResponse(), incrementChain));
+            MockHttpServletResponse retry = new MockHttpServletResponse();
+            idempotencyFilter.doFilter(incrementRequest("key-4", "{\"quantity\":10}"), retry, incrementChain);
+
+        //Então
+
+            //Verifica se a repetição foi executada em vez de esperar por uma requisição que nunca termina
+            assertThat(retry.getStatus(), is(equalTo(HttpStatus.OK.value())));
+            assertThat(retry.getContentAsString(), is(equalTo(RESPONSE_BODY)));
+            assertThat(executions.get(), is(equalTo(1)));
+    }
+
+    //Quando o handler lê o corpo com um ReadListener, então o corpo guardado é entregue de forma não bloqueante
+    @Test
+    void whenHandlerReadsTheBodyWithAReadListenerThenCachedBodyIsDelivered() throws Exception {
+
+        //Dado
+
+            //Nenhum registro persistido para a chave e um handler que lê o corpo de forma não bloqueante
+            when(idempotencyRecordRepository.findById("key-3")).thenReturn(Optional.empty());
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            AtomicInteger allDataRead = new AtomicInteger();
+            FilterChain nonBlockingChain = (request, response) -> {
+                ServletInputStream input = request.getInputStream();
+                input.setReadListener(new ReadListener() {
+
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        byte[] buffer = new byte[8];
+                        while (input.isReady() && !input.isFinished()) {
+                            int read = input.read(buffer);
+                            received.write(buffer, 0, read);
+                        }
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        allDataRead.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        throw new AssertionError(throwable);
+                    }
+                });
+            };
+
+        //Quando
+
+            //O incremento for enviado com a chave
+            idempotencyFilter.doFilter(incrementRequest("key-3", "{\"quantity\":10}"), new MockHttpServletResponse(), nonBlockingChain);
+
+        //Então
+
+            //Verifica se o handler recebeu o corpo inteiro e foi avisado do fim da leitura uma única vez
+            assertThat(received.toString(StandardCharsets.UTF_8), is(equalTo("{\"quantity\":10}")));
+            assertThat(allDataRead.get(), is(equalTo(1)));
+    }
+
+    private static MockHttpServletRequest incrementRequest(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", INCREMENT_URI);
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes());
+        return request;
+    }
+}
@@ -0,0 +1,131 @@
+package one.digitalinnovation.beerstock.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class StockJournalTest {
+
+    @TempDir
+    Path directory;
+
+    //Quando movimentações são registradas, então o replay devolve a última quantidade de cada cerveja
+    @Test
+    void whenMovementsAreAppendedThenReplayReturnsLatestQuantities() throws IOException {
+
+        //Dado
+
+            //Registra movimentações de duas cervejas e a remoção de uma terceira
+            try (StockJournal stockJournal = new StockJournal(directory.resolve("stock.journal"), 100)) {
+                stockJournal.append(1L, 10, 10, 1L);
+                stockJournal.append(2L, 5, 5, 2L);
+                stockJournal.append(1L, 3, 13, 3L);
+                stockJournal.append(3L, 7, 7, 4L);
+                stockJournal.append(3L, -7, StockJournal.DELETED, 5L);
+
+        //Quando
+
+            //Reconstrói as quantidades
+            Map<Long, Integer> quantities = stockJournal.replay();
+
+        //Então
+
+            //Verifica se somente a última quantidade das cervejas não removidas é devolvida
+            assertThat(quantities, is(equalTo(Map.of(1L, 13, 2L, 5))));
+            }
+    }
+
+    //Quando o diário é reaberto, então as novas movimentações continuam após as existentes
+    @Test
+    void whenJournalIsReopenedThenAppendsContinueAfterExistingRecords() throws IOException {
+
+        //Dado
+
+            //Registra uma movimentação e fecha o diário
+            Path path = directory.resolve("stock.journal");
+            try (StockJournal stockJournal = new StockJournal(path, 100)) {
+                stockJournal.append(1L, 10, 10, 1L);
+            }
+
+        //Quando
+
+            //Reabre o diário e registra uma nova movimentação
+            try (StockJournal stockJournal = new StockJournal(path, 100)) {
+                stockJournal.append(2L, 4, 4, 2L);
+
+        //Então
+
+            //Verifica se as duas movimentações são reconstruídas
+            assertThat(stockJournal.size(), is(equalTo(2L)));
+            assertThat(stockJournal.replay(), is(equalTo(Map.of(1L, 10, 2L, 4))));
+            }
+    }
+
+    //Quando o diário enche, então ele é compactado e continua aceitando movimentações
+    @Test
+    void whenJournalIsFullThenItIsCompactedAndKeepsAppending() throws IOException {
+
+        //Dado
+
+            //Abre um diário com espaço para poucas movimentações
+            try (StockJournal stockJournal = new StockJournal(directory.resolve("stock.journal"), 4)) {
+
+        //Quando
+
+            //Registra mais movimentações do que o espaço disponível
+            for (int quantity = 1; quantity <= 10; quantity++) {
+                stockJournal.append(quantity % 2, 1, quantity, quantity);
+            }
+
+        //Então
+
+            //Verifica se as últimas quantidades foram preservadas pela compactação
+            assertThat(stockJournal.replay(), is(equalTo(Map.of(0L, 10, 1L, 9))));
+            }
+    }
+
+    //Quando o diário cai duas vezes, então registros anteriores à primeira queda não reaparecem
+    @Test
+    void whenJournalCrashesTwiceThenRecordsBeforeTheFirstCrashAreNotReplayed() throws IOException {
+
+        //Dado
+
+            //Registra cinco movimentações e corrompe a terceira, simulando uma escrita interrompida
+            Path path = directory.resolve("stock.journal");
+            try (StockJournal stockJournal = new StockJournal(path, 100)) {
+                for (long beerId = 1; beerId <= 5; beerId++) {
+                    stockJournal.append(beerId, 1, 1, beerId);
+                }
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(StockJournal.RECORD_SIZE), StockJournal.HEADER_SIZE + 2L * StockJournal.RECORD_SIZE);
+            }
+
+            //Reabre o diário após a primeira queda e registra uma nova movimentação
+            try (StockJournal stockJournal = new StockJournal(path, 100)) {
+                stockJournal.append(6L, 1, 1, 6L);
+            }
+
+        //Quando
+
+            //Reabre o diário após a segunda queda
+            try (StockJournal stockJournal = new StockJournal(path, 100)) {
+
+        //Então
+
+            //Verifica se apenas as movimentações anteriores ao registro corrompido e a nova são reconstruídas
+            assertThat(stockJournal.size(), is(equalTo(3L)));
+            assertThat(stockJournal.replay(), is(equalTo(Map.of(1L, 1, 2L, 1, 6L, 1))));
+            }
+    }
+}
@@ -0,0 +1,143 @@
+package one.digitalinnovation.beerstock.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.controller.BeerController;
+import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.mockito.Mockito.mock;
+
+public class RateLimitInterceptorTest {
+
+    private static final int CLIENT_CAPACITY = 40;
+    private static final String TRUSTED_PROXY = "10.0.0.1";
+
+    private HandlerInterceptor rateLimitInterceptor;
+
+    private HandlerMethod listBeers;
+
+    private HandlerMethod increment;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        RateLimiter rateLimiter = new RateLimiter(new SimpleMeterRegistry(), true, CLIENT_CAPACITY, 0.001,
+                1000, 1000, 100, Duration.ofMinutes(10));
+        rateLimitInterceptor = new RateLimitInterceptor(rateLimiter, "X-Client-Id", Set.of(TRUSTED_PROXY));
+        BeerController beerController = mock(BeerController.class);
+        listBeers = new HandlerMethod(beerController, BeerController.class.getMethod("listBeers", WebRequest.class));
+        increment = new HandlerMethod(beerController, BeerController.class.getMethod("increment", Long.class, QuantityDTO.class));
+    }
+
+    //Quando um cliente esgota seu balde listando cervejas, então recebe 429 e os demais clientes seguem atendidos
+    @Test
+    void whenAClientDrainsItsBucketListingBeersThenItGetsTooManyRequestsAndOtherClientsAreAdmitted() throws Exception {
+
+        //Dado
+
+            //Um cliente que já fez duas listagens, de custo 20 cada, esgotando os 40 tokens do balde
+            assertThat(preHandle("192.168.0.10", listBeers).getStatus(), is(equalTo(HttpStatus.OK.value())));
+            assertThat(preHandle("192.168.0.10", listBeers).getStatus(), is(equalTo(HttpStatus.OK.value())));
+
+        //Quando
+
+            //O mesmo cliente listar e incrementar de novo, e outro cliente incrementar
+            MockHttpServletResponse rejectedList = preHandle("192.168.0.10", listBeers);
+            MockHttpServletResponse rejectedIncrement = preHandle("192.168.0.10", increment);
+            MockHttpServletResponse otherClient = preHandle("192.168.0.20", increment);
+
+        //Então
+
+            //Verifica se o cliente ruidoso recebeu 429 com Retry-After e se o outro cliente foi admitido
+            assertThat(rejectedList.getStatus(), is(equalTo(HttpStatus.TOO_MANY_REQUESTS.value())));
+            assertThat(rejectedList.getHeader(HttpHeaders.RETRY_AFTER), is(notNullValue()));
+            assertThat(rejectedIncrement.getStatus(), is(equalTo(HttpStatus.TOO_MANY_REQUESTS.value())));
+            assertThat(otherClient.getStatus(), is(equalTo(HttpStatus.OK.value())));
+    }
+
+    //Quando as chamadas baratas cabem no balde, então todas são admitidas
+    @Test
+    void whenCheapCallsFitTheBucketThenAllAreAdmitted() throws Exception {
+
+        //Quando / Então
+
+            //Verifica se os 40 incrementos, de custo 1, foram admitidos e se o seguinte foi rejeitado
+            for (int i = 0; i < CLIENT_CAPACITY; i++) {
+                assertThat(preHandle("192.168.0.30", increment).getStatus(), is(equalTo(HttpStatus.OK.value())));
+            }
+            assertThat(preHandle("192.168.0.30", increment).getStatus(), is(equalTo(HttpStatus.TOO_MANY_REQUESTS.value())));
+    }
+
+    //Quando clientes fora de um proxy confiável trocam o X-Client-Id, então continuam no balde do seu endereço
+    @Test
+    void whenUntrustedClientRotatesClientIdHeaderThenItStaysOnItsAddressBucket() throws Exception {
+
+        //Dado
+
+            //Um cliente que esgota o balde do seu endereço com um X-Client-Id
+            assertThat(preHandle("192.168.0.40", "first", listBeers).getStatus(), is(equalTo(HttpStatus.OK.value())));
+            assertThat(preHandle("192.168.0.40", "first", listBeers).getStatus(), is(equalTo(HttpStatus.OK.value())));
+
+        //Quando
+
+            //O mesmo endereço enviar outro X-Client-Id
+            MockHttpServletResponse rotated = preHandle("192.168.0.40", "second", listBeers);
+
+        //Então
+
+            //Verifica se o cabeçalho foi ignorado e a requisição rejeitada
+            assertThat(rotated.getStatus(), is(equalTo(HttpStatus.TOO_MANY_REQUESTS.value())));
+    }
+
+    //Quando as requisições chegam por um proxy confiável, então cada X-Client-Id tem seu próprio balde
+    @Test
+    void whenRequestsComeThroughATrustedProxyThenEachClientIdHasItsOwnBucket() throws Exception {
+
+        //Dado
+
+            //Um cliente atrás do proxy que esgota seu balde
+            assertThat(preHandle(TRUSTED_PROXY, "first", listBeers).getStatus(), is(equalTo(HttpStatus.OK.value())));
+            assertThat(preHandle(TRUSTED_PROXY, "first", listBeers).getStatus(), is(equalTo(HttpStatus.OK.value())));
+
+        //Quando
+
+            //O mesmo cliente e outro cliente listarem pelo proxy
+            MockHttpServletResponse rejected = preHandle(TRUSTED_PROXY, "first", listBeers);
+            MockHttpServletResponse otherClient = preHandle(TRUSTED_PROXY, "second", listBeers);
+
+        //Então
+
+            //Verifica se apenas o cliente que esgotou o balde foi rejeitado
+            assertThat(rejected.getStatus(), is(equalTo(HttpStatus.TOO_MANY_REQUESTS.value())));
+            assertThat(otherClient.getStatus(), is(equalTo(HttpStatus.OK.value())));
+    }
+
+    private MockHttpServletResponse preHandle(String remoteAddr, HandlerMethod handlerMethod) throws Exception {
+        return preHandle(remoteAddr, null, handlerMethod);
+    }
+
+    private MockHttpServletResponse preHandle(String remoteAddr, String clientId, HandlerMethod handlerMethod) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (clientId != null) {
+            request.addHeader("X-Client-Id", clientId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitInterceptor.preHandle(request, response, handlerMethod);
+        return response;
+    }
+}
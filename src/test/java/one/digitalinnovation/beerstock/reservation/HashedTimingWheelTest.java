@@ -0,0 +1,46 @@
+package one.digitalinnovation.beerstock.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class HashedTimingWheelTest {
+
+    //Quando os prazos vencem, então as tarefas expiram e as canceladas são descartadas
+    @Test
+    void whenDeadlinesPassThenTasksExpireAndCancelledOnesAreSkipped() throws InterruptedException {
+
+        //Dado
+
+            //Gera uma roda com 4 posições de 10ms, menor que o maior prazo agendado
+            List<String> expired = new CopyOnWriteArrayList<>();
+            CountDownLatch done = new CountDownLatch(2);
+            try (HashedTimingWheel<String> timingWheel = new HashedTimingWheel<>(Duration.ofMillis(10), 4, task -> {
+                expired.add(task);
+                done.countDown();
+            }, "test-timing-wheel")) {
+
+        //Quando
+
+                //Agenda três tarefas e cancela a segunda
+                timingWheel.schedule("first", Duration.ofMillis(20));
+                HashedTimingWheel.Timeout<String> cancelled = timingWheel.schedule("cancelled", Duration.ofMillis(50));
+                timingWheel.schedule("after-a-full-round", Duration.ofMillis(120));
+                assertThat(cancelled.cancel(), is(true));
+
+        //Então
+
+                //Verifica se somente as tarefas não canceladas expiraram, na ordem dos prazos
+                assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+                assertThat(expired, contains("first", "after-a-full-round"));
+            }
+    }
+}
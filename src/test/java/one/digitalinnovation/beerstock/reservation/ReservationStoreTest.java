@@ -0,0 +1,117 @@
+package one.digitalinnovation.beerstock.reservation;
+
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.entity.Reservation;
+import one.digitalinnovation.beerstock.event.ReservationExpiredEvent;
+import one.digitalinnovation.beerstock.repository.ReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservationStoreTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ReservationStore reservationStore;
+
+    @BeforeEach
+    void setUp() {
+        reservationStore = new ReservationStore(reservationRepository, eventPublisher, Runnable::run,
+                Duration.ofMinutes(15), Duration.ofMillis(10), 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationStore.close();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    //Quando a reserva é criada dentro de uma transação, então ela é gravada e só passa a expirar depois do commit
+    @Test
+    void whenReservationIsCreatedInATransactionThenItIsPersistedAndOnlyTrackedAfterCommit() {
+
+        //Dado
+
+            //Uma transação com sincronização ativa
+            TransactionSynchronizationManager.initSynchronization();
+
+        //Quando
+
+            //Uma reserva de 3 unidades for criada
+            reservationStore.create(1L, 3, null);
+
+        //Então
+
+            //Verifica se a reserva foi gravada e só foi acompanhada depois do commit
+            verify(reservationRepository).save(any(Reservation.class));
+            assertThat(reservationStore.size(), is(equalTo(0)));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            assertThat(reservationStore.size(), is(equalTo(1)));
+    }
+
+    //Quando a transação que cria a reserva é desfeita, então nenhuma expiração é agendada
+    @Test
+    void whenReservingTransactionRollsBackThenNothingIsTracked() {
+
+        //Dado
+
+            //Uma transação com sincronização ativa
+            TransactionSynchronizationManager.initSynchronization();
+
+        //Quando
+
+            //Uma reserva for criada e a transação desfeita
+            reservationStore.create(1L, 3, null);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        //Então
+
+            //Verifica se a reserva não é acompanhada
+            assertThat(reservationStore.size(), is(equalTo(0)));
+    }
+
+    //Quando uma reserva gravada antes do reinício já venceu, então ela expira assim que volta a ser acompanhada
+    @Test
+    void whenReservationLeftByAPreviousRunIsAlreadyDueThenItExpiresRightAway() {
+
+        //Quando
+
+            //Uma reserva vencida há um minuto for recarregada
+            reservationStore.track(ReservationDTO.builder()
+                    .id("left-open")
+                    .beerId(1L)
+                    .quantity(3)
+                    .expiresAt(Instant.now().minus(Duration.ofMinutes(1)))
+                    .build());
+
+        //Então
+
+            //Verifica se o evento de expiração foi publicado
+            verify(eventPublisher, timeout(2000)).publishEvent(any(ReservationExpiredEvent.class));
+    }
+}
@@ -0,0 +1,159 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerImportErrorDTO;
+import one.digitalinnovation.beerstock.dto.BeerImportReportDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.InvalidImportHeaderException;
+import one.digitalinnovation.beerstock.metrics.BeerMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerImportServiceTest {
+
+    @Mock
+    private BeerService beerService;
+
+    private BeerImportService beerImportService;
+
+    @BeforeEach
+    void setUp() {
+        OptimisticRetryPolicy optimisticRetryPolicy = new OptimisticRetryPolicy(new BeerMetrics(new SimpleMeterRegistry()), 3, Duration.ZERO, Duration.ZERO);
+        beerImportService = new BeerImportService(beerService, optimisticRetryPolicy,
+                Validation.buildDefaultValidatorFactory().getValidator(), 2, 1);
+    }
+
+    //Quando um CSV é importado, então as linhas válidas são gravadas em lotes e as inválidas são reportadas
+    @Test
+    void whenCsvIsImportedThenValidRowsAreUpsertedInBatchesAndInvalidRowsAreReported() throws IOException, InvalidImportHeaderException {
+
+        //Dado
+
+            //Um CSV com três linhas válidas, uma delas com vírgula e quebra de linha entre aspas, e duas inválidas
+            InputStream csv = csv("name,brand,max,quantity,type\r\n"
+                    + "Brahma,Ambev,50,10,lager\r\n"
+                    + "\"Skol, \"\"Pilsen\"\"\",\"Ambev\nBrasil\",50,10,WEISS\r\n"
+                    + "Bohemia,Ambev,abc,10,LAGER\r\n"
+                    + "Colorado,,50,10,IPA\r\n"
+                    + "Baden,Baden,50,10,ALE\r\n");
+
+        //Quando
+
+            //Cada lote gravado criar todas as suas cervejas
+            when(beerService.upsertBatch(anyList())).thenAnswer(invocation -> invocation.<List<BeerDTO>>getArgument(0).size());
+            BeerImportReportDTO report = beerImportService.importCsv(csv);
+
+        //Então
+
+            //Verifica se as três linhas válidas foram gravadas em dois lotes, com os campos entre aspas preservados
+            ArgumentCaptor<List<BeerDTO>> batches = ArgumentCaptor.forClass(List.class);
+            verify(beerService, times(2)).upsertBatch(batches.capture());
+            assertThat(batches.getAllValues().get(0), hasSize(2));
+            assertThat(batches.getAllValues().get(0).get(1).getName(), is(equalTo("Skol, \"Pilsen\"")));
+            assertThat(batches.getAllValues().get(0).get(1).getBrand(), is(equalTo("Ambev\nBrasil")));
+            assertThat(batches.getAllValues().get(0).get(1).getType(), is(equalTo(BeerType.WEISS)));
+
+            //Verifica se o relatório conta as linhas e guarda somente o primeiro erro
+            assertThat(report.getRows(), is(equalTo(5L)));
+            assertThat(report.getCreated(), is(equalTo(3L)));
+            assertThat(report.getFailed(), is(equalTo(2L)));
+            assertThat(report.getErrors(), contains(new BeerImportErrorDTO(4L, "max abc is not a number")));
+            assertThat(report.isErrorsTruncated(), is(true));
+    }
+
+    //Quando o mesmo nome aparece duas vezes seguidas, então cada ocorrência é gravada em um lote diferente
+    @Test
+    void whenSameNameAppearsTwiceThenEachOccurrenceIsUpsertedInItsOwnBatch() throws IOException, InvalidImportHeaderException {
+
+        //Dado
+
+            //Um CSV com a mesma cerveja duas vezes e colunas em outra ordem
+            InputStream csv = csv("type,quantity,max,brand,name\nLAGER,10,50,Ambev,Brahma\nLAGER,20,50,Ambev,Brahma\n");
+
+        //Quando
+
+            //A primeira ocorrência criar a cerveja e a segunda atualizá-la
+            when(beerService.upsertBatch(anyList())).thenReturn(1, 0);
+            BeerImportReportDTO report = beerImportService.importCsv(csv);
+
+        //Então
+
+            //Verifica se houve dois lotes, um criando e outro atualizando
+            verify(beerService, times(2)).upsertBatch(anyList());
+            assertThat(report.getCreated(), is(equalTo(1L)));
+            assertThat(report.getUpdated(), is(equalTo(1L)));
+    }
+
+    //Quando uma linha tem um campo longo demais, então só ela é reportada e as seguintes continuam sendo importadas
+    @Test
+    void whenRowHasAFieldThatIsTooLongThenOnlyThatRowIsReported() throws IOException, InvalidImportHeaderException {
+
+        //Dado
+
+            //Um CSV com uma marca de 20000 caracteres entre duas linhas válidas
+            InputStream csv = csv("name,brand,max,quantity,type\n"
+                    + "Brahma,Ambev,50,10,LAGER\n"
+                    + "Skol,\"" + "A".repeat(20000) + "\",50,10,LAGER\n"
+                    + "Baden,Baden,50,10,ALE\n");
+
+        //Quando
+
+            //Cada lote gravado criar todas as suas cervejas
+            when(beerService.upsertBatch(anyList())).thenAnswer(invocation -> invocation.<List<BeerDTO>>getArgument(0).size());
+            BeerImportReportDTO report = beerImportService.importCsv(csv);
+
+        //Então
+
+            //Verifica se a linha com o campo longo foi reportada e se as outras duas foram gravadas
+            assertThat(report.getRows(), is(equalTo(3L)));
+            assertThat(report.getCreated(), is(equalTo(2L)));
+            assertThat(report.getFailed(), is(equalTo(1L)));
+            assertThat(report.getErrors(), contains(new BeerImportErrorDTO(3L, "Field longer than 10000 characters in record 3")));
+    }
+
+    //Quando o cabeçalho não tem uma coluna obrigatória, então uma exceção deve ser lançada
+    @Test
+    void whenHeaderIsMissingAColumnThenAnExceptionShouldBeThrown() {
+
+        //Dado
+
+            //Um CSV sem a coluna type
+            InputStream csv = csv("name,brand,max,quantity\nBrahma,Ambev,50,10\n");
+
+        //Então
+
+            //Verifica se a importação lançou InvalidImportHeaderException sem gravar nada
+            assertThrows(InvalidImportHeaderException.class, () -> beerImportService.importCsv(csv));
+            verifyNoInteractions(beerService);
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
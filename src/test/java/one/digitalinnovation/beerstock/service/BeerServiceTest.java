@@ -1,23 +1,58 @@
 package one.digitalinnovation.beerstock.service;
 
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.cache.BeerNameFilter;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupResultDTO;
+import one.digitalinnovation.beerstock.dto.BeerPageDTO;
+import one.digitalinnovation.beerstock.dto.BeerSearchDTO;
+import one.digitalinnovation.beerstock.dto.BeerSearchResultDTO;
+import one.digitalinnovation.beerstock.dto.ReservationDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentDTO;
+import one.digitalinnovation.beerstock.dto.StockAdjustmentResultDTO;
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerSortField;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.enums.StockAdjustmentStatus;
+import one.digitalinnovation.beerstock.event.BeerStockChangedEvent;
+import one.digitalinnovation.beerstock.event.ReservationExpiredEvent;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.BeerStockInsufficientException;
+import one.digitalinnovation.beerstock.exception.InvalidSearchCursorException;
+import one.digitalinnovation.beerstock.exception.ReservationNotFoundException;
 import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.metrics.BeerMetrics;
+import one.digitalinnovation.beerstock.repository.BeerJdbcRepository;
 import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerSearchCursor;
+import one.digitalinnovation.beerstock.reservation.ReservationStore;
+import one.digitalinnovation.beerstock.stock.StockTable;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.stubbing.OngoingStubbing;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -103,6 +138,47 @@ public class BeerServiceTest {
     @Mock
     private BeerRepository beerRepository;
 
+    @Mock
+    private BeerJdbcRepository beerJdbcRepository;
+
+    @Mock
+    private BeerCache beerCache;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ReservationStore reservationStore;
+
+    // Spy: cria uma instancia real parcialmente simulada. Aqui as métricas são gravadas em um registro em memória.
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private BeerMetrics beerMetrics = new BeerMetrics(meterRegistry);
+
+    // Conflitos de versão são repetidos sem espera entre as tentativas
+    @Spy
+    private OptimisticRetryPolicy optimisticRetryPolicy = new OptimisticRetryPolicy(beerMetrics, 3, Duration.ZERO, Duration.ZERO);
+
+    // O filtro de nomes só responde "não existe" depois de carregado; até lá toda busca segue para o banco
+    @Spy
+    private BeerNameFilter beerNameFilter = new BeerNameFilter(1000, 0.01);
+
+    // A tabela de estoque em memória fica desligada; todo incremento segue para o banco
+    @Spy
+    private StockTable stockTable = new StockTable(null, null, false, 0, Duration.ZERO);
+
+    // As transações programáticas executam o callback direto sobre um gerenciador simulado
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    // O agrupamento de incrementos fica desligado; cada incremento executa seu próprio UPDATE
+    @Spy
+    private IncrementCoalescer incrementCoalescer = new IncrementCoalescer(null, null, null, false, Duration.ZERO, 0);
+
     // BeerMapper
 
     //  toModel = DTO -> MODEL
@@ -140,8 +216,8 @@ public class BeerServiceTest {
 
         //Quando
 
-            //expectedSavedBeerDTO for salvo ou não -> expectedSavedBeer
-            when(beerRepository.save(expectedSavedBeer))
+            //Uma cerveja for inserida ou não -> expectedSavedBeer, já com o id gerado pelo banco
+            when(beerRepository.saveAndFlush(Mockito.any(Beer.class)))
                     .thenReturn(expectedSavedBeer);
 
         // Então
@@ -170,14 +246,15 @@ public class BeerServiceTest {
             //Gera um BeerDTO
             BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
-            //Tranforma o BeertDTO em um BeerModel
-            Beer duplicatedBeer = beerMapper.toModel(expectedBeerDTO);
+            //Gera a violação da restrição única do nome, como reportada pelo banco
+            DataIntegrityViolationException uniqueNameViolation = new DataIntegrityViolationException("could not execute statement",
+                    new ConstraintViolationException("Unique index or primary key violation", null, "PUBLIC.UK_BEER_NAME_INDEX_1"));
 
         // Quando
 
-            //expectedBeerDTO.getName() for encontrado ou não -> Optional.of(duplicatedBeer)
-            when(beerRepository.findByName(expectedBeerDTO.getName()))
-                    .thenReturn(Optional.of(duplicatedBeer));
+            //Uma cerveja com nome já registrado for inserida -> Exceção DataIntegrityViolationException
+            when(beerRepository.saveAndFlush(Mockito.any(Beer.class)))
+                    .thenThrow(uniqueNameViolation);
 
         // Então
 
@@ -186,6 +263,89 @@ public class BeerServiceTest {
 
     }
 
+    //Quando uma lista de cervejas é informada, então elas devem ser criadas em lote
+    @Test
+    void whenBeerListInformedThenTheyShouldBeCreatedInBatch() throws BeerAlreadyRegisteredException {
+
+        // Dado
+
+            //Gera dois BeerDTOs com nomes diferentes
+            BeerDTO firstBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            BeerDTO secondBeerDTO = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+            List<BeerDTO> beerDTOs = Arrays.asList(firstBeerDTO, secondBeerDTO);
+
+        // Quando
+
+            //Os nomes forem encontrados ou não -> Collections.EMPTY_LIST
+            when(beerRepository.findByNameIn(Arrays.asList(firstBeerDTO.getName(), secondBeerDTO.getName())))
+                    .thenReturn(Collections.EMPTY_LIST);
+
+        // Então
+
+            //createdBeerDTOs recebe as cervejas criadas
+            List<BeerDTO> createdBeerDTOs = beerService.createBeers(beerDTOs);
+
+            //Verifica se as cervejas criadas possuem os nomes informados
+            assertThat(createdBeerDTOs.get(0).getName(), is(equalTo(firstBeerDTO.getName())));
+            assertThat(createdBeerDTOs.get(1).getName(), is(equalTo(secondBeerDTO.getName())));
+
+            //Verifica se o lote foi salvo e enviado ao banco uma vez
+            verify(beerRepository, times(1)).saveAll(Mockito.anyList());
+            verify(beerRepository, times(1)).flush();
+    }
+
+    //Quando outra requisição grava um dos nomes do lote depois da verificação, então uma exceção deve ser lançada
+    @Test
+    void whenBeerListNameIsTakenConcurrentlyThenAnExceptionShouldBeThrown() {
+
+        // Dado
+
+            //Gera dois BeerDTOs com nomes diferentes
+            BeerDTO firstBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            BeerDTO secondBeerDTO = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+
+            //Gera a violação da restrição única do nome, como reportada pelo banco
+            DataIntegrityViolationException uniqueNameViolation = new DataIntegrityViolationException("could not execute batch",
+                    new ConstraintViolationException("Unique index or primary key violation", null, "PUBLIC.UK_BEER_NAME_INDEX_1"));
+
+        // Quando
+
+            //Os nomes ainda estiverem livres na verificação, mas o envio do lote violar a restrição única
+            when(beerRepository.findByNameIn(Arrays.asList(firstBeerDTO.getName(), secondBeerDTO.getName())))
+                    .thenReturn(Collections.EMPTY_LIST);
+            doThrow(uniqueNameViolation).when(beerRepository).flush();
+
+        // Então
+
+            //Verifica se beerService.createBeers lançou a exceção BeerAlreadyRegisteredException.class com os nomes do lote
+            BeerAlreadyRegisteredException exception = assertThrows(BeerAlreadyRegisteredException.class,
+                    () -> beerService.createBeers(Arrays.asList(firstBeerDTO, secondBeerDTO)));
+            assertThat(exception.getMessage(), containsString(firstBeerDTO.getName() + ", " + secondBeerDTO.getName()));
+
+            //Verifica se nenhum evento de criação foi publicado
+            verifyNoInteractions(eventPublisher);
+    }
+
+    // Quando uma lista de cervejas com nome repetido é informada, então uma exceção deve ser lançada
+    @Test
+    void whenBeerListWithDuplicatedNameInformedThenAnExceptionShouldBeThrown() {
+
+        // Dado
+
+            //Gera dois BeerDTOs com o mesmo nome
+            BeerDTO firstBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            BeerDTO secondBeerDTO = BeerDTOBuilder.builder().id(2L).build().toBeerDTO();
+
+        // Então
+
+            //Verifica se beerService.createBeers lançou a exceção BeerAlreadyRegisteredException.class
+            assertThrows(BeerAlreadyRegisteredException.class,
+                    () -> beerService.createBeers(Arrays.asList(firstBeerDTO, secondBeerDTO)));
+
+            //Verifica se nada foi salvo
+            verify(beerRepository, never()).saveAll(Mockito.anyList());
+    }
+
     //Quando um nome de cerveja válido é fornecido, então retorna uma cerveja -> Exceção de cerveja não encontrada
     @Test
     void whenValidBeerNameIsGivenThenReturnABeer() throws BeerNotFoundException {
@@ -195,14 +355,11 @@ public class BeerServiceTest {
             //Gera um BeerDTO
             BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
-            //Tranforma o BeertDTO em um BeerModel
-            Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
-
         // Quando
 
-            //expectedFoundBeer.getName() for encontrado ou não -> Optional.of(expectedFoundBeer)
-            when(beerRepository.findByName(expectedFoundBeer.getName()))
-                    .thenReturn(Optional.of(expectedFoundBeer));
+            //A projeção por expectedFoundBeerDTO.getName() for encontrada ou não -> Optional.of(expectedFoundBeerDTO)
+            when(beerRepository.findDTOByName(expectedFoundBeerDTO.getName()))
+                    .thenReturn(Optional.of(expectedFoundBeerDTO));
 
         // Então
 
@@ -213,6 +370,33 @@ public class BeerServiceTest {
             assertThat(foundBeerDTO, is(equalTo(expectedFoundBeerDTO)));
     }
 
+    //Quando um nome de cerveja em cache é fornecido, então retorna a cerveja sem consultar o banco
+    @Test
+    void whenCachedBeerNameIsGivenThenReturnABeerWithoutQueryingTheRepository() throws BeerNotFoundException {
+
+        // Dado
+
+            //Gera um BeerDTO
+            BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // Quando
+
+            //expectedFoundBeerDTO.getName() estiver em cache ou não -> Optional.of(expectedFoundBeerDTO)
+            when(beerCache.get(expectedFoundBeerDTO.getName()))
+                    .thenReturn(Optional.of(expectedFoundBeerDTO));
+
+        // Então
+
+            //foundBeerDTO recebe a cerveja encontrada
+            BeerDTO foundBeerDTO = beerService.findByName(expectedFoundBeerDTO.getName());
+
+            //Verifica se o objeto foundBeerDTO é igual ao objeto expectedFoundBeerDTO
+            assertThat(foundBeerDTO, is(equalTo(expectedFoundBeerDTO)));
+
+            //Verifica se o metódo findDTOByName da classe beerRepository nunca foi chamado
+            verify(beerRepository, never()).findDTOByName(expectedFoundBeerDTO.getName());
+    }
+
     //Quando um nome de cerveja não registrado é fornecido, então lança uma exceção
     @Test
     void whenNotRegisteredBeerNameIsGivenThenThrowAnException() {
@@ -225,7 +409,7 @@ public class BeerServiceTest {
         // Quando
 
             //expectedFoundBeerDTO.getName() for encontrado ou não -> Optional.empty()
-            when(beerRepository.findByName(expectedFoundBeerDTO.getName()))
+            when(beerRepository.findDTOByName(expectedFoundBeerDTO.getName()))
                     .thenReturn(Optional.empty());
 
         // Então
@@ -236,6 +420,60 @@ public class BeerServiceTest {
     }
 
 
+    //Quando um nome de cerveja descartado pelo filtro é fornecido, então lança uma exceção sem consultar o banco
+    @Test
+    void whenNameRejectedByFilterIsGivenThenThrowAnExceptionWithoutQueryingTheRepository() {
+
+        // Dado
+
+            //Gera um BeerDTO
+            BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+            //O filtro é carregado sem nenhum nome registrado
+            beerNameFilter.markReady();
+
+        // Então
+
+            //Verifica se beerService.findByName(expectedFoundBeerDTO.getName()) lançou a exceção BeerNotFoundException.class
+            assertThrows(BeerNotFoundException.class, () -> beerService.findByName(expectedFoundBeerDTO.getName()));
+
+            //Verifica se nem o cache nem o banco foram consultados
+            verify(beerCache, never()).get(expectedFoundBeerDTO.getName());
+            verify(beerRepository, never()).findDTOByName(expectedFoundBeerDTO.getName());
+    }
+
+    //Quando vários nomes e ids são buscados de uma vez, então as encontradas e as não encontradas são retornadas separadas
+    @Test
+    void whenLookupIsCalledThenFoundBeersAndNotFoundKeysAreReturnedSeparately() {
+
+        // Dado
+
+            //Uma cerveja em cache, uma somente no banco e outra buscada pelo id
+            BeerDTO cachedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            BeerDTO storedBeerDTO = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+            BeerDTO beerFoundByIdDTO = BeerDTOBuilder.builder().id(3L).name("Bohemia").build().toBeerDTO();
+
+        // Quando
+
+            //O cache tiver somente a primeira cerveja e o banco encontrar a segunda pelo nome e a terceira pelo id
+            when(beerCache.get(cachedBeerDTO.getName())).thenReturn(Optional.of(cachedBeerDTO));
+            when(beerRepository.findDTOsByNameIn(Arrays.asList("Skol", "Colorado")))
+                    .thenReturn(Collections.singletonList(storedBeerDTO));
+            when(beerRepository.findDTOsByIdIn(Arrays.asList(3L, 4L)))
+                    .thenReturn(Collections.singletonList(beerFoundByIdDTO));
+            BeerLookupResultDTO result = beerService.lookup(Arrays.asList("Brahma", "Skol", "Colorado", "Skol"), Arrays.asList(3L, 4L));
+
+        // Então
+
+            //Verifica se as três cervejas foram encontradas na ordem pedida e as chaves restantes reportadas
+            assertThat(result.getBeers(), Matchers.contains(cachedBeerDTO, storedBeerDTO, beerFoundByIdDTO));
+            assertThat(result.getNotFoundNames(), Matchers.contains("Colorado"));
+            assertThat(result.getNotFoundIds(), Matchers.contains(4L));
+
+            //Verifica se a cerveja lida do banco foi guardada no cache
+            verify(beerCache, times(1)).fill(storedBeerDTO, 0L);
+    }
+
     //Quando uma lista de cervejas for chamada, então retorne uma lista de cervejas
     @Test
     void whenListBeerIsCalledThenReturnAListOfBeers() {
@@ -244,14 +482,11 @@ public class BeerServiceTest {
             //Gera um BeerDTO
             BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
-            //Tranforma o BeertDTO em um BeerModel
-            Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
-
         //when
 
-            //beerService.listAll() retornar uma lista ou não -> Collections.singletonList(beerDTO)
-            when(beerRepository.findAll())
-                    .thenReturn(Collections.singletonList(expectedFoundBeer));
+            //A projeção de todas as cervejas retornar uma lista ou não -> Collections.singletonList(expectedFoundBeerDTO)
+            when(beerRepository.findAllDTOs())
+                    .thenReturn(Collections.singletonList(expectedFoundBeerDTO));
 
         //then
 
@@ -273,7 +508,7 @@ public class BeerServiceTest {
         //Quando
 
             //beerService.findAll() retornar uma lista ou não -> Collections.singletonList(beerDTO)
-            when(beerRepository.findAll())
+            when(beerRepository.findAllDTOs())
                     .thenReturn(Collections.EMPTY_LIST);
 
         //Então
@@ -285,6 +520,136 @@ public class BeerServiceTest {
             assertThat(foundListBeersDTO, is(empty()));
     }
 
+    //Quando uma página de cervejas é chamada, então retorna a página e o cursor da próxima página
+    @Test
+    void whenListPageIsCalledThenReturnAPageWithNextCursor() {
+
+        // Dado
+
+            //Gera um BeerDTO
+            BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // Quando
+
+            //A projeção de cervejas com id maior que 0 retornar uma lista ou não -> Collections.singletonList(expectedFoundBeerDTO)
+            when(beerRepository.findDTOsAfter(0L, PageRequest.of(0, 1)))
+                    .thenReturn(Collections.singletonList(expectedFoundBeerDTO));
+
+        // Então
+
+            //foundPage recebe a página de cervejas
+            BeerPageDTO foundPage = beerService.listPage(null, 1);
+
+            //Verifica se o primeiro elemento da página é igual ao expectedFoundBeerDTO
+            assertThat(foundPage.getBeers().get(0), is(equalTo(expectedFoundBeerDTO)));
+
+            //Verifica se o cursor da próxima página é o id do último elemento da página
+            assertThat(foundPage.getNextCursor(), is(equalTo(expectedFoundBeerDTO.getId())));
+    }
+
+    //Quando a última página de cervejas é chamada, então o cursor da próxima página é nulo
+    @Test
+    void whenLastPageIsCalledThenNextCursorIsNull() {
+
+        //Quando
+
+            //A projeção de cervejas com id maior que 1 retornar uma lista ou não -> Collections.EMPTY_LIST
+            when(beerRepository.findDTOsAfter(1L, PageRequest.of(0, 10)))
+                    .thenReturn(Collections.EMPTY_LIST);
+
+        //Então
+
+            //foundPage recebe a página de cervejas
+            BeerPageDTO foundPage = beerService.listPage(1L, 10);
+
+            //Verifica se a página está vazia e se o cursor é nulo
+            assertThat(foundPage.getBeers(), is(empty()));
+            assertThat(foundPage.getNextCursor(), is(nullValue()));
+    }
+
+    //Quando a busca encontra mais cervejas que o tamanho da página, então o cursor da próxima página é retornado
+    @Test
+    void whenSearchFindsMoreThanAPageThenReturnANextCursor() throws InvalidSearchCursorException {
+
+        // Dado
+
+            //Gera duas cervejas e uma busca por marca ordenada por quantidade com páginas de 1 elemento
+            Beer firstBeer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+            Beer secondBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO());
+            BeerSearchDTO criteria = BeerSearchDTO.builder()
+                    .brand(firstBeer.getBrand())
+                    .sort(BeerSortField.QUANTITY)
+                    .size(1)
+                    .build();
+
+        // Quando
+
+            //A busca pedir uma cerveja a mais que o tamanho da página -> as duas cervejas
+            when(beerRepository.search(criteria, BeerSortField.QUANTITY, Sort.Direction.ASC, null, 2))
+                    .thenReturn(Arrays.asList(firstBeer, secondBeer));
+
+        // Então
+
+            //Verifica se somente a primeira cerveja foi retornada e se o cursor aponta para ela
+            BeerSearchResultDTO result = beerService.search(criteria);
+            assertThat(result.getBeers(), is(equalTo(Collections.singletonList(beerMapper.toDTO(firstBeer)))));
+            BeerSearchCursor cursor = BeerSearchCursor.decode(result.getNextCursor(), BeerSortField.QUANTITY, Sort.Direction.ASC);
+            assertThat(cursor.getId(), is(equalTo(firstBeer.getId())));
+            assertThat(cursor.getValue(), is(equalTo(firstBeer.getQuantity())));
+    }
+
+    //Quando o cursor foi gerado para outra ordenação, então uma exceção é lançada
+    @Test
+    void whenSearchCursorWasIssuedForAnotherSortThenThrowAnException() {
+
+        // Dado
+
+            //Gera um cursor de uma busca ordenada por quantidade e uma busca ordenada por nome
+            Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+            String cursor = BeerSearchCursor.after(beer, BeerSortField.QUANTITY, Sort.Direction.ASC).encode();
+            BeerSearchDTO criteria = BeerSearchDTO.builder()
+                    .sort(BeerSortField.NAME)
+                    .cursor(cursor)
+                    .build();
+
+        // Então
+
+            //Verifica se beerService.search lançou a exceção InvalidSearchCursorException.class
+            assertThrows(InvalidSearchCursorException.class, () -> beerService.search(criteria));
+    }
+
+    //Quando um lote é importado, então as cervejas existentes são atualizadas e as novas são criadas
+    @Test
+    void whenBatchIsUpsertedThenExistingBeersAreUpdatedAndNewOnesCreated() {
+
+        // Dado
+
+            //Uma cerveja já cadastrada e um lote com ela em outro tipo e uma cerveja nova
+            Beer existingBeer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+            BeerDTO updatedBeerDTO = BeerDTOBuilder.builder().id(null).quantity(30).type(BeerType.STOUT).build().toBeerDTO();
+            BeerDTO newBeerDTO = BeerDTOBuilder.builder().id(null).name("Skol").build().toBeerDTO();
+
+        // Quando
+
+            //beerRepository.findByNameIn() encontrar somente a cerveja já cadastrada
+            when(beerRepository.findByNameIn(Arrays.asList(existingBeer.getName(), newBeerDTO.getName())))
+                    .thenReturn(Collections.singletonList(existingBeer));
+            int created = beerService.upsertBatch(Arrays.asList(updatedBeerDTO, newBeerDTO));
+
+        // Então
+
+            //Verifica se somente a cerveja nova foi criada e a existente foi alterada na entidade gerenciada
+            assertThat(created, is(equalTo(1)));
+            assertThat(existingBeer.getQuantity(), is(equalTo(30)));
+            assertThat(existingBeer.getType(), is(equalTo(BeerType.STOUT)));
+            verify(beerRepository, times(1)).saveAll(argThat(beers -> ((List<Beer>) beers).size() == 1));
+
+            //Verifica se a mudança de tipo foi publicada com o tipo e a quantidade anteriores
+            verify(eventPublisher, times(1)).publishEvent(Mockito.<Object>argThat(event -> event instanceof BeerStockChangedEvent
+                    && ((BeerStockChangedEvent) event).getPreviousType() == BeerType.LAGER
+                    && ((BeerStockChangedEvent) event).getDelta() == 20));
+    }
+
     //Quando a exclusão é chamada com ID válido, então uma cerveja deve ser excluída
     @Test
     void whenExclusionIsCalledWithValidIdThenABeerShouldBeDeleted() throws BeerNotFoundException{
@@ -324,6 +689,9 @@ public class BeerServiceTest {
 
             //Verifica se o metódo deleteById da classe beerRepository foi chamado uma vez
             verify(beerRepository, times(1)).deleteById(expectedDeletedBeerDTO.getId());
+
+            //Verifica se a cerveja excluída foi removida do cache
+            verify(beerCache, times(1)).evict(expectedDeletedBeerDTO.getName());
     }
 
 
@@ -336,22 +704,23 @@ public class BeerServiceTest {
             //Gera um BeerDTO
             BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
-            //Tranforma o BeertDTO em um BeerModel
+            int quantityToIncrement = 10;
+            int expectedQuantityAfterIncrement = expectedBeerDTO.getQuantity() + quantityToIncrement;
+
+            //Tranforma o BeertDTO em um BeerModel já com a quantidade atualizada pelo UPDATE
             Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+            expectedBeer.setQuantity(expectedQuantityAfterIncrement);
 
         //Quando
 
+            //O UPDATE condicional de expectedBeerDTO.getId() for executado -> 1 linha alterada
+            when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), quantityToIncrement))
+                    .thenReturn(1);
+
             //expectedBeerDTO.getId() for encontrado ou não -> Optional.of(expectedBeer)
             when(beerRepository.findById(expectedBeerDTO.getId()))
                     .thenReturn(Optional.of(expectedBeer));
 
-            //expectedBeer for salvo ou não -> expectedBeer
-            when(beerRepository.save(expectedBeer))
-                    .thenReturn(expectedBeer);
-
-        int quantityToIncrement = 10;
-        int expectedQuantityAfterIncrement = expectedBeerDTO.getQuantity() + quantityToIncrement;
-
         // Então
 
             //Gera um BeerDTO
@@ -363,6 +732,17 @@ public class BeerServiceTest {
             //Verifica se expectedQuantityAfterIncrement é menor que expectedBeerDTO.getMax()
             assertThat(expectedQuantityAfterIncrement, lessThan(expectedBeerDTO.getMax()));
 
+            //Verifica se a cerveja não foi salva pelo caminho de leitura-modificação-escrita
+            verify(beerRepository, never()).save(Mockito.any(Beer.class));
+
+            //Verifica se a fase de repositório do incremento foi cronometrada e se não há incrementos em andamento
+            assertThat(meterRegistry.get("beerstock.service").tag("operation", "increment").tag("phase", "repository").timer().count(),
+                    is(equalTo(1L)));
+            assertThat(meterRegistry.get("beerstock.increments.in.flight").tag("beerId", String.valueOf(expectedBeerDTO.getId())).gauge().value(),
+                    is(equalTo(0.0)));
+
+            //Verifica se o evento de alteração de estoque foi publicado com a nova quantidade
+            verify(eventPublisher, times(1)).publishEvent(BeerStockChangedEvent.updated(incrementedBeerDTO, quantityToIncrement));
     }
 
     //Quando o incremento for maior que o máximo, então lance uma  exceção
@@ -377,13 +757,18 @@ public class BeerServiceTest {
             //Tranforma o BeertDTO em um BeerModel
             Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
+            int quantityToIncrement = 80;
+
         //Quando
 
+            //O UPDATE condicional de expectedBeerDTO.getId() for executado -> nenhuma linha alterada
+            when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), quantityToIncrement))
+                    .thenReturn(0);
+
             //expectedBeerDTO.getId() for encontrado ou não -> Optional.of(expectedBeer
             when(beerRepository.findById(expectedBeerDTO.getId()))
                     .thenReturn(Optional.of(expectedBeer));
 
-        int quantityToIncrement = 80;
         //Então
 
             //Verifica se beerService.increment(expectedBeerDTO.getId(), quantityToIncrement) lançou a exceção
@@ -404,14 +789,18 @@ public class BeerServiceTest {
             //Tranforma o BeertDTO em um BeerModel
             Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
+            int quantityToIncrement = 45;
+
         //Quando
 
+            //O UPDATE condicional de expectedBeerDTO.getId() for executado -> nenhuma linha alterada
+            when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), quantityToIncrement))
+                    .thenReturn(0);
+
             //expectedBeerDTO.getId() for encontrado ou não -> Optional.of(expectedBeer
             when(beerRepository.findById(expectedBeerDTO.getId()))
                     .thenReturn(Optional.of(expectedBeer));
 
-            int quantityToIncrement = 45;
-
             //Verifica se beerService.increment(expectedBeerDTO.getId(), quantityToIncrement) lançou a exceção
             //BeerStockExceededException.class
             assertThrows(BeerStockExceededException.class,
@@ -429,6 +818,9 @@ public class BeerServiceTest {
 
         //Quando
 
+            //O UPDATE condicional de INVALID_BEER_ID for executado -> nenhuma linha alterada
+            when(beerRepository.incrementQuantity(INVALID_BEER_ID, quantityToIncrement)).thenReturn(0);
+
             //INVALID_BEER_ID for encontrado ou não -> Optional.of(expectedBeer)
             when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
 
@@ -438,6 +830,231 @@ public class BeerServiceTest {
             //BeerStockExceededException.class
             assertThrows(BeerNotFoundException.class,
                     () -> beerService.increment(INVALID_BEER_ID, quantityToIncrement));
+
+            //Verifica se a exceção foi contabilizada nas métricas
+            assertThat(meterRegistry.get("beerstock.exceptions").tag("exception", "BeerNotFoundException").counter().count(),
+                    is(equalTo(1.0)));
+
+            //Verifica se a busca da cerveja foi cronometrada como repositório, e não como validação
+            assertThat(meterRegistry.get("beerstock.service").tag("operation", "increment").tag("phase", "repository").timer().count(),
+                    is(equalTo(1L)));
+            assertThat(meterRegistry.find("beerstock.service").tag("operation", "increment").tag("phase", "validation").timer(),
+                    is(nullValue()));
+    }
+
+
+    //Quando o decremento é chamado, então o estoque é decrementado pelo UPDATE condicional
+    @Test
+    void whenDecrementIsCalledThenDecrementBeerStock() throws BeerNotFoundException, BeerStockInsufficientException {
+
+        //Dado
+
+            //Gera um BeerDTO e o BeerModel já com a quantidade atualizada pelo UPDATE
+            BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            int quantityToDecrement = 4;
+            Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+            expectedBeer.setQuantity(expectedBeerDTO.getQuantity() - quantityToDecrement);
+
+        //Quando
+
+            //O UPDATE condicional de expectedBeerDTO.getId() for executado -> 1 linha alterada
+            when(beerRepository.decrementQuantity(expectedBeerDTO.getId(), quantityToDecrement)).thenReturn(1);
+
+            //expectedBeerDTO.getId() for encontrado ou não -> Optional.of(expectedBeer)
+            when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+
+        //Então
+
+            //Verifica se a quantidade foi decrementada e se o evento foi publicado com o delta negativo
+            BeerDTO decrementedBeerDTO = beerService.decrement(expectedBeerDTO.getId(), quantityToDecrement);
+            assertThat(decrementedBeerDTO.getQuantity(), is(equalTo(expectedBeerDTO.getQuantity() - quantityToDecrement)));
+            verify(eventPublisher, times(1)).publishEvent(BeerStockChangedEvent.updated(decrementedBeerDTO, -quantityToDecrement));
     }
 
+    //Quando o decremento é maior que o estoque, então uma exceção é lançada
+    @Test
+    void whenDecrementIsGreaterThanStockThenThrowException() {
+
+        //Dado
+
+            //Gera um BeerDTO
+            BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            int quantityToDecrement = expectedBeerDTO.getQuantity() + 1;
+
+        //Quando
+
+            //O UPDATE condicional de expectedBeerDTO.getId() for executado -> nenhuma linha alterada
+            when(beerRepository.decrementQuantity(expectedBeerDTO.getId(), quantityToDecrement)).thenReturn(0);
+
+            //expectedBeerDTO.getId() for encontrado ou não -> Optional.of(expectedBeer)
+            when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(expectedBeerDTO)));
+
+        //Então
+
+            //Verifica se beerService.decrement lançou a exceção BeerStockInsufficientException.class
+            assertThrows(BeerStockInsufficientException.class,
+                    () -> beerService.decrement(expectedBeerDTO.getId(), quantityToDecrement));
+    }
+
+    //Quando a tabela de estoque em memória atende o incremento e o decremento, então nenhuma transação é aberta
+    @Test
+    void whenStockTableHoldsTheBeerThenIncrementAndDecrementOpenNoTransaction() throws Exception {
+
+        //Dado
+
+            //Gera um BeerDTO mantido pela tabela de estoque em memória
+            BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            BeerDTO incrementedBeerDTO = BeerDTOBuilder.builder().quantity(15).build().toBeerDTO();
+            BeerDTO decrementedBeerDTO = BeerDTOBuilder.builder().quantity(12).build().toBeerDTO();
+
+        //Quando
+
+            //A tabela ajustar o estoque -> incrementedBeerDTO e decrementedBeerDTO
+            doReturn(incrementedBeerDTO).when(stockTable).increment(beerDTO.getId(), 5);
+            doReturn(decrementedBeerDTO).when(stockTable).decrement(beerDTO.getId(), 3);
+            beerService.increment(beerDTO.getId(), 5);
+            beerService.decrement(beerDTO.getId(), 3);
+
+        //Então
+
+            //Verifica se nenhuma transação foi aberta e se o banco não foi consultado
+            verify(transactionTemplate, never()).execute(any());
+            verifyNoInteractions(beerRepository);
+    }
+
+    //Quando a reserva não é gravada depois do decremento na tabela de estoque, então as unidades voltam ao estoque
+    @Test
+    void whenReservationFailsToPersistThenStockTableUnitsAreRestored() throws Exception {
+
+        //Dado
+
+            //Gera um BeerDTO mantido pela tabela de estoque em memória
+            BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            BeerDTO decrementedBeerDTO = BeerDTOBuilder.builder().quantity(7).build().toBeerDTO();
+
+        //Quando
+
+            //A tabela decrementar o estoque e a gravação da reserva falhar
+            doReturn(decrementedBeerDTO).when(stockTable).decrement(beerDTO.getId(), 3);
+            doReturn(beerDTO).when(stockTable).restore(beerDTO.getId(), 3);
+            when(reservationStore.create(beerDTO.getId(), 3, null)).thenThrow(new DataAccessResourceFailureException("database unavailable"));
+
+        //Então
+
+            //Verifica se a falha é propagada e se as unidades decrementadas voltaram à tabela de estoque
+            assertThrows(DataAccessResourceFailureException.class, () -> beerService.reserve(beerDTO.getId(), 3, null));
+            verify(stockTable, times(1)).restore(beerDTO.getId(), 3);
+            verify(eventPublisher, times(1)).publishEvent(BeerStockChangedEvent.updated(beerDTO, 3));
+    }
+
+    //Quando uma reserva é liberada, então suas unidades voltam ao estoque
+    @Test
+    void whenReservationIsReleasedThenItsUnitsAreRestored() throws ReservationNotFoundException {
+
+        //Dado
+
+            //Gera um BeerDTO e uma reserva de 3 unidades
+            BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            ReservationDTO reservationDTO = ReservationDTO.builder()
+                    .id("reservation")
+                    .beerId(expectedBeerDTO.getId())
+                    .quantity(3)
+                    .build();
+
+        //Quando
+
+            //A reserva for removida -> Optional.of(reservationDTO)
+            when(reservationStore.remove(reservationDTO.getId())).thenReturn(Optional.of(reservationDTO));
+
+            //O UPDATE de reposição for executado -> 1 linha alterada
+            when(beerRepository.restoreQuantity(expectedBeerDTO.getId(), 3)).thenReturn(1);
+            when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(expectedBeerDTO)));
+
+            //A reserva for liberada
+            beerService.releaseReservation(reservationDTO.getId());
+
+        //Então
+
+            //Verifica se o estoque foi reposto e se o evento foi publicado
+            verify(beerRepository, times(1)).restoreQuantity(expectedBeerDTO.getId(), 3);
+            verify(eventPublisher, times(1)).publishEvent(BeerStockChangedEvent.updated(expectedBeerDTO, 3));
+    }
+
+    //Quando uma reserva expira mas sua linha já foi removida, então o estoque não é reposto de novo
+    @Test
+    void whenExpiredReservationWasAlreadyRemovedThenUnitsAreNotRestoredAgain() {
+
+        //Dado
+
+            //Uma reserva de 3 unidades cuja linha já não existe
+            ReservationDTO reservationDTO = ReservationDTO.builder()
+                    .id("reservation")
+                    .beerId(1L)
+                    .quantity(3)
+                    .build();
+            when(reservationStore.removeExpired(reservationDTO.getId())).thenReturn(false);
+
+        //Quando
+
+            //A expiração da reserva for tratada
+            beerService.onReservationExpired(new ReservationExpiredEvent(reservationDTO));
+
+        //Então
+
+            //Verifica se nenhuma reposição foi feita
+            verify(beerRepository, never()).restoreQuantity(any(), anyInt());
+            verifyNoInteractions(eventPublisher);
+    }
+
+    //Quando uma reserva inexistente é confirmada, então uma exceção é lançada
+    @Test
+    void whenUnknownReservationIsCommittedThenThrowException() {
+
+        //Quando
+
+            //A reserva não for encontrada -> Optional.empty()
+            when(reservationStore.remove("unknown")).thenReturn(Optional.empty());
+
+        //Então
+
+            //Verifica se beerService.commitReservation lançou a exceção ReservationNotFoundException.class
+            assertThrows(ReservationNotFoundException.class, () -> beerService.commitReservation("unknown"));
+    }
+
+    //Quando o incremento em lote é chamado, então retorna o resultado de cada ajuste na ordem do pedido
+    @Test
+    void whenIncrementAllIsCalledThenReturnAResultForEachAdjustment() {
+
+        //Dado
+
+            //Gera um BeerDTO e o transforma em um BeerModel
+            BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+
+            //Gera um ajuste que cabe no estoque, um que excede o máximo e um com ID inválido
+            StockAdjustmentDTO validAdjustment = new StockAdjustmentDTO(expectedBeerDTO.getId(), 10);
+            StockAdjustmentDTO exceededAdjustment = new StockAdjustmentDTO(expectedBeerDTO.getId(), 80);
+            StockAdjustmentDTO invalidAdjustment = new StockAdjustmentDTO(INVALID_BEER_ID + 1, 10);
+            List<StockAdjustmentDTO> adjustments = Arrays.asList(validAdjustment, exceededAdjustment, invalidAdjustment);
+
+        //Quando
+
+            //O lote de UPDATEs for executado -> 1 linha alterada apenas no primeiro ajuste
+            when(beerJdbcRepository.incrementQuantities(adjustments))
+                    .thenReturn(new int[]{1, 0, 0});
+
+            //Os IDs forem buscados -> apenas expectedBeer é encontrado
+            when(beerRepository.findAllById(Arrays.asList(expectedBeerDTO.getId(), INVALID_BEER_ID + 1)))
+                    .thenReturn(Collections.singletonList(expectedBeer));
+
+        //Então
+
+            //results recebe o resultado de cada ajuste
+            List<StockAdjustmentResultDTO> results = beerService.incrementAll(adjustments);
+
+            //Verifica o status de cada ajuste
+            assertThat(results.get(0).getStatus(), is(equalTo(StockAdjustmentStatus.UPDATED)));
+            assertThat(results.get(1).getStatus(), is(equalTo(StockAdjustmentStatus.STOCK_EXCEEDED)));
+            assertThat(results.get(2).getStatus(), is(equalTo(StockAdjustmentStatus.NOT_FOUND)));
+    }
 }
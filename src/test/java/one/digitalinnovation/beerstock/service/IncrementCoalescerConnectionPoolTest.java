@@ -0,0 +1,71 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coalescer-pool;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=250",
+        "beerstock.increments.coalescing.enabled=true",
+        "beerstock.increments.coalescing.window=10s",
+        "beerstock.increments.coalescing.max-depth=" + IncrementCoalescerConnectionPoolTest.CONCURRENT_INCREMENTS
+})
+public class IncrementCoalescerConnectionPoolTest {
+
+    static final int CONCURRENT_INCREMENTS = 8;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    //Quando há mais seguidores esperando do que conexões no pool, então todos entram no mesmo lote sem esgotar o pool
+    @Test
+    void whenMoreFollowersThanPooledConnectionsWaitThenTheyAllJoinOneBatch() throws Exception {
+
+        //Dado
+
+            //Uma cerveja com quantidade 10 e máximo 50, e um pool de apenas 2 conexões
+            BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Coalesced").build().toBeerDTO());
+
+        //Quando
+
+            //Oito incrementos de 1 forem enviados ao mesmo tempo; o lote só fecha quando os oito entrarem
+            ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_INCREMENTS);
+            List<Future<BeerDTO>> results = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_INCREMENTS; i++) {
+                results.add(executor.submit(() -> beerService.increment(beerDTO.getId(), 1)));
+            }
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS), is(true));
+
+        //Então
+
+            //Verifica se todos os incrementos foram aceitos em um único lote de oito
+            for (Future<BeerDTO> result : results) {
+                result.get();
+            }
+            assertThat(beerService.findByName("Coalesced").getQuantity(), is(equalTo(10 + CONCURRENT_INCREMENTS)));
+            DistributionSummary batchSizes = meterRegistry.get("beerstock.increments.batch.size").summary();
+            assertThat(batchSizes.count(), is(equalTo(1L)));
+            assertThat(batchSizes.max(), is(equalTo((double) CONCURRENT_INCREMENTS)));
+    }
+}
@@ -0,0 +1,121 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.metrics.BeerMetrics;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class IncrementCoalescerTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    //Quando incrementos concorrentes chegam para a mesma cerveja, então eles são aplicados com um único UPDATE
+    @Test
+    void whenConcurrentIncrementsArriveThenTheyAreAppliedWithASingleUpdate() throws InterruptedException {
+
+        //Dado
+
+            //Gera uma cerveja com quantidade 10 e máximo 50 e um agrupador que fecha o lote com 3 incrementos
+            BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            Beer beer = BeerMapper.INSTANCE.toModel(beerDTO);
+            IncrementCoalescer incrementCoalescer = new IncrementCoalescer(beerRepository, new BeerMetrics(new SimpleMeterRegistry()), transactionTemplate, true, Duration.ofSeconds(5), 3);
+
+        //Quando
+
+            //O id da cerveja for bloqueado para atualização -> Optional.of(beer)
+            when(beerRepository.findByIdForUpdate(beerDTO.getId())).thenReturn(Optional.of(beer));
+
+            //Três incrementos de 20 forem enviados ao mesmo tempo
+            ExecutorService executor = Executors.newFixedThreadPool(3);
+            List<Future<BeerDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> incrementCoalescer.increment(beerDTO.getId(), 20)));
+            }
+            executor.shutdown();
+
+        //Então
+
+            //Verifica se os dois primeiros incrementos foram aceitos e o terceiro excedeu o máximo
+            List<Object> outcomes = results.stream().map(result -> {
+                try {
+                    return result.get().getQuantity();
+                } catch (ExecutionException e) {
+                    return e.getCause().getClass();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).collect(Collectors.toList());
+            assertThat(outcomes, containsInAnyOrder(30, 50, BeerStockExceededException.class));
+
+            //Verifica se a soma dos incrementos aceitos foi gravada com um único UPDATE
+            verify(beerRepository, times(1)).findByIdForUpdate(beerDTO.getId());
+            verify(beerRepository, times(1)).incrementQuantity(beerDTO.getId(), 40);
+
+            //Verifica se somente o líder abriu uma transação
+            verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    //Quando a cerveja não existe, então todos os incrementos do lote recebem a exceção
+    @Test
+    void whenBeerIsNotFoundThenIncrementThrowsException() {
+
+        //Dado
+
+            //Gera um agrupador que fecha o lote imediatamente
+            IncrementCoalescer incrementCoalescer = new IncrementCoalescer(beerRepository, new BeerMetrics(new SimpleMeterRegistry()), transactionTemplate, true, Duration.ZERO, 64);
+
+        //Quando
+
+            //O id 1 for bloqueado para atualização -> Optional.empty()
+            when(beerRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
+
+        //Então
+
+            //Verifica se o incremento lança a exceção e nenhum UPDATE é executado
+            assertThrows(BeerNotFoundException.class, () -> incrementCoalescer.increment(1L, 10));
+            verify(beerRepository, never()).incrementQuantity(1L, 10);
+    }
+}
@@ -0,0 +1,70 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.metrics.BeerMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OptimisticRetryPolicyTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final OptimisticRetryPolicy optimisticRetryPolicy =
+            new OptimisticRetryPolicy(new BeerMetrics(meterRegistry), 3, Duration.ofNanos(1), Duration.ofMillis(1));
+
+    //Quando a escrita conflita duas vezes e depois é aplicada, então o resultado é retornado e os conflitos contados
+    @Test
+    void whenWriteConflictsTwiceThenItIsRetriedAndConflictsAreCounted() {
+
+        //Dado
+
+            //Uma escrita que conflita nas duas primeiras tentativas
+            AtomicInteger attempts = new AtomicInteger();
+
+        //Quando
+
+            //A escrita for executada pela política
+            int result = optimisticRetryPolicy.execute("increment", () -> {
+                if (attempts.incrementAndGet() < 3) {
+                    throw new ObjectOptimisticLockingFailureException(Beer.class, 1L);
+                }
+                return attempts.get();
+            });
+
+        //Então
+
+            //Verifica se a terceira tentativa foi aplicada e se os contadores registraram dois conflitos e duas repetições
+            assertThat(result, is(equalTo(3)));
+            assertThat(meterRegistry.get("beerstock.optimistic.conflicts").tag("operation", "increment").counter().count(), is(equalTo(2.0)));
+            assertThat(meterRegistry.get("beerstock.optimistic.retries").tag("operation", "increment").counter().count(), is(equalTo(2.0)));
+    }
+
+    //Quando a escrita conflita em todas as tentativas, então o último conflito é lançado
+    @Test
+    void whenEveryAttemptConflictsThenTheLastConflictIsThrown() {
+
+        //Dado
+
+            //Uma escrita que sempre conflita
+            AtomicInteger attempts = new AtomicInteger();
+
+        //Então
+
+            //Verifica se o conflito foi lançado após o número máximo de tentativas
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> optimisticRetryPolicy.run("deleteById", () -> {
+                attempts.incrementAndGet();
+                throw new ObjectOptimisticLockingFailureException(Beer.class, 1L);
+            }));
+            assertThat(attempts.get(), is(equalTo(3)));
+            assertThat(meterRegistry.get("beerstock.optimistic.exhausted").tag("operation", "deleteById").counter().count(), is(equalTo(1.0)));
+    }
+}
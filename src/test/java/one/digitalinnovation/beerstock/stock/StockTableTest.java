@@ -0,0 +1,141 @@
+package one.digitalinnovation.beerstock.stock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.metrics.BeerMetrics;
+import one.digitalinnovation.beerstock.repository.BeerJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class StockTableTest {
+
+    @Mock
+    private BeerJdbcRepository beerJdbcRepository;
+
+    private StockTable stockTable;
+
+    // @BeforeEach: Execute antes de cada método de teste.
+    @BeforeEach
+    void setUp() {
+        stockTable = new StockTable(beerJdbcRepository, new BeerMetrics(new SimpleMeterRegistry()), true, 16, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        stockTable.close();
+    }
+
+    //Quando a cerveja não está na tabela, então o incremento segue para o banco
+    @Test
+    void whenBeerIsNotLoadedThenIncrementFallsBackToTheRepository() throws BeerStockExceededException {
+
+        //Então
+
+            //Verifica se nenhum BeerDTO é devolvido pela tabela
+            assertThat(stockTable.increment(1L, 10), is(nullValue()));
+    }
+
+    //Quando incrementos concorrentes são aplicados, então nenhum é perdido e o máximo é respeitado
+    @Test
+    void whenConcurrentIncrementsAreAppliedThenNoneIsLostAndMaxIsRespected() throws InterruptedException {
+
+        //Dado
+
+            //Carrega uma cerveja com quantidade 10 e máximo 50
+            BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            stockTable.load(beerDTO);
+            AtomicInteger exceeded = new AtomicInteger();
+
+        //Quando
+
+            //Aplica 100 incrementos de 1 em paralelo
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            for (int i = 0; i < 100; i++) {
+                executor.execute(() -> {
+                    try {
+                        stockTable.increment(beerDTO.getId(), 1);
+                    } catch (BeerStockExceededException e) {
+                        exceeded.incrementAndGet();
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        //Então
+
+            //Verifica se a quantidade chegou ao máximo e se os incrementos excedentes foram recusados
+            assertThat(stockTable.overlay(beerDTO).getQuantity(), is(equalTo(beerDTO.getMax())));
+            assertThat(exceeded.get(), is(equalTo(100 - (beerDTO.getMax() - beerDTO.getQuantity()))));
+
+            //Verifica se o BeerDTO original não foi alterado
+            assertThat(beerDTO.getQuantity(), is(equalTo(10)));
+    }
+
+    //Quando a tabela é descarregada, então a soma dos incrementos é gravada no banco uma única vez
+    @Test
+    void whenTableIsFlushedThenSummedDeltasAreWrittenOnce() throws BeerStockExceededException {
+
+        //Dado
+
+            //Carrega uma cerveja e incrementa seu estoque duas vezes
+            BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            stockTable.load(beerDTO);
+            stockTable.increment(beerDTO.getId(), 5);
+            stockTable.increment(beerDTO.getId(), 7);
+
+        //Quando
+
+            //Descarrega a tabela duas vezes
+            stockTable.flush();
+            stockTable.flush();
+
+        //Então
+
+            //Verifica se o banco recebeu um único lote com o incremento somado
+            verify(beerJdbcRepository).addQuantities(Map.of(beerDTO.getId(), 12));
+            verifyNoMoreInteractions(beerJdbcRepository);
+    }
+
+    //Quando a cerveja é removida, então o incremento segue para o banco
+    @Test
+    void whenBeerIsRemovedThenIncrementFallsBackToTheRepository() throws BeerStockExceededException {
+
+        //Dado
+
+            //Carrega e remove uma cerveja
+            BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+            stockTable.load(beerDTO);
+            stockTable.remove(beerDTO.getId());
+
+        //Então
+
+            //Verifica se o incremento não é aplicado na tabela nem gravado no banco
+            assertThat(stockTable.increment(beerDTO.getId(), 1), is(nullValue()));
+            stockTable.flush();
+            verify(beerJdbcRepository, never()).addQuantities(anyMap());
+    }
+}
@@ -0,0 +1,93 @@
+package one.digitalinnovation.beerstock.summary;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerTypeSummaryDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerStockChangedEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StockSummaryTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @InjectMocks
+    private StockSummary stockSummary;
+
+    //Quando o resumo é carregado e o estoque muda, então os totais por tipo acompanham as mudanças
+    @Test
+    void whenSummaryIsSeededAndStockChangesThenTotalsFollowTheChanges() {
+
+        //Dado
+
+            //Gera um BeerDTO do tipo LAGER com quantidade 10 e máximo 50
+            BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        //Quando
+
+            //A consulta agrupada retornar duas cervejas do tipo LAGER
+            when(beerRepository.summarizeByType())
+                    .thenReturn(Collections.singletonList(new BeerTypeSummaryDTO(BeerType.LAGER, 2L, 30L, 100L)));
+            stockSummary.seed();
+
+            //Uma cerveja for criada, incrementada em 5 e outra removida
+            stockSummary.onStockChanged(BeerStockChangedEvent.created(beerDTO));
+            beerDTO.setQuantity(beerDTO.getQuantity() + 5);
+            stockSummary.onStockChanged(BeerStockChangedEvent.updated(beerDTO, 5));
+            stockSummary.onStockChanged(BeerStockChangedEvent.deleted(BeerDTOBuilder.builder().id(2L).quantity(20).build().toBeerDTO()));
+
+        //Então
+
+            //Verifica se há um resumo por tipo e se os totais do tipo LAGER foram atualizados
+            List<BeerTypeSummaryDTO> summaries = stockSummary.summarize();
+            assertThat(summaries, hasSize(BeerType.values().length));
+            assertThat(summaries.get(BeerType.LAGER.ordinal()), is(equalTo(new BeerTypeSummaryDTO(BeerType.LAGER, 2L, 25L, 100L))));
+            assertThat(summaries.get(BeerType.LAGER.ordinal()).getFillRatio(), is(equalTo(0.25)));
+    }
+
+    //Quando uma mudança de estoque chega durante a carga do resumo, então ela não é contada duas vezes
+    @Test
+    void whenStockChangesWhileSummaryIsSeededThenTheChangeIsNotCountedTwice() {
+
+        //Dado
+
+            //Gera um BeerDTO do tipo LAGER com quantidade 10 e máximo 50
+            BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        //Quando
+
+            //A cerveja for criada enquanto a consulta agrupada roda e já aparecer no resultado dela
+            BeerTypeSummaryDTO withCreatedBeer = new BeerTypeSummaryDTO(BeerType.LAGER, 3L, 40L, 150L);
+            when(beerRepository.summarizeByType())
+                    .thenAnswer(invocation -> {
+                        stockSummary.onStockChanged(BeerStockChangedEvent.created(beerDTO));
+                        return Collections.singletonList(withCreatedBeer);
+                    })
+                    .thenReturn(Collections.singletonList(withCreatedBeer));
+            stockSummary.seed();
+
+        //Então
+
+            //Verifica se a carga foi refeita e se os totais do tipo LAGER contam a cerveja criada uma única vez
+            verify(beerRepository, times(2)).summarizeByType();
+            assertThat(stockSummary.summarize().get(BeerType.LAGER.ordinal()), is(equalTo(withCreatedBeer)));
+    }
+}